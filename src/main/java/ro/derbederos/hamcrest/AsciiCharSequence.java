@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A zero-copy {@link CharSequence} view over bytes, where every byte is a character (ISO-8859-1).
+ * It is an exact decoding for ISO-8859-1, and for US-ASCII and UTF-8 as long as all the bytes are ASCII.
+ * The view uses absolute indexes, so the position of the buffer is not changed.
+ */
+final class AsciiCharSequence implements CharSequence {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    AsciiCharSequence(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Creates a view over the remaining bytes of the buffer.
+     */
+    static AsciiCharSequence of(ByteBuffer buffer) {
+        return new AsciiCharSequence(buffer, buffer.position(), buffer.remaining());
+    }
+
+    static AsciiCharSequence of(byte[] bytes) {
+        return new AsciiCharSequence(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /**
+     * Returns a view over the remaining bytes of the buffer if they are all ASCII, or else the bytes decoded
+     * as UTF-8. The position of the buffer is not changed.
+     */
+    static CharSequence asciiViewOrUtf8(ByteBuffer buffer) {
+        AsciiCharSequence view = of(buffer);
+        return view.isAscii() ? view : StandardCharsets.UTF_8.decode(buffer.duplicate());
+    }
+
+    boolean isAscii() {
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new AsciiCharSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (buffer.get(offset + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+}
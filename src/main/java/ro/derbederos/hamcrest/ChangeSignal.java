@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <p>
+ * A {@link ChangeSource} signaled explicitly by the code that changes the observed object, for instance from
+ * a wrapper of an {@code AtomicReference} or of a queue used by a test.
+ * </p>
+ * <pre>
+ * ChangeSignal changed = new ChangeSignal();
+ * executor.submit(() -&gt; {
+ *     reference.set(result);
+ *     changed.signal();
+ * });
+ * assertThat(reference, retryOnChange(5, SECONDS, changed, hasFeature(AtomicReference::get, equalTo(result))));
+ * </pre>
+ *
+ * @since 0.20
+ */
+public final class ChangeSignal implements ChangeSource {
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * <p>
+     * Creates a change signal without listeners.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public ChangeSignal() {
+    }
+
+    /**
+     * <p>
+     * Notifies all the registered listeners about a change.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public void signal() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    @Override
+    public Runnable subscribe(Runnable onChange) {
+        listeners.add(onChange);
+        return () -> listeners.remove(onChange);
+    }
+}
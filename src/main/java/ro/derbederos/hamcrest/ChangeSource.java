@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * A source of change notifications, that lets a retry matcher evaluate its matcher again only when the input
+ * may have changed, as used by {@link RetryMatchers#retryOnChange(long, TimeUnit, ChangeSource, org.hamcrest.Matcher)}.
+ * </p>
+ * <p>
+ * Any listener based API can be adapted with a lambda, including a {@code Flow.Publisher}, whose subscriber calls
+ * the listener from {@code onNext}:
+ * </p>
+ * <pre>
+ * ChangeSource source = onChange -&gt; {
+ *     PropertyChangeListener listener = event -&gt; onChange.run();
+ *     bean.addPropertyChangeListener(listener);
+ *     return () -&gt; bean.removePropertyChangeListener(listener);
+ * };
+ * </pre>
+ *
+ * @see ChangeSignal
+ * @since 0.20
+ */
+@FunctionalInterface
+public interface ChangeSource {
+
+    /**
+     * <p>
+     * Registers a listener to be called after every change.
+     * </p>
+     *
+     * @param onChange The listener. It is called from the thread that made the change, and must not block.
+     * @return The action that unregisters the listener.
+     * @since 0.20
+     */
+    Runnable subscribe(Runnable onChange);
+
+    /**
+     * <p>
+     * Creates a change source that notifies once, when the given {@code future} is completed.
+     * </p>
+     *
+     * @param future The future to be observed.
+     * @return The change source.
+     * @since 0.20
+     */
+    static ChangeSource of(CompletableFuture<?> future) {
+        return onChange -> {
+            // the future keeps its callbacks until it completes, so unsubscribing drops the listener it reaches
+            AtomicReference<Runnable> listener = new AtomicReference<>(onChange);
+            future.whenComplete((result, exception) -> {
+                Runnable subscribed = listener.get();
+                if (subscribed != null) {
+                    subscribed.run();
+                }
+            });
+            return () -> listener.set(null);
+        };
+    }
+}
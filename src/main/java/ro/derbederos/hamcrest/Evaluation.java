@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The outcome of evaluating a single-use input, like a stream, against a matcher. It keeps only what is needed
+ * to describe the mismatch, so the input does not have to be collected in order to report the failure.
+ */
+final class Evaluation {
+
+    static final Evaluation MATCHED = new Evaluation(true, (item, description) -> {
+    });
+
+    private final boolean matched;
+    private final BiConsumer<Object, Description> mismatchDescriber;
+
+    private Evaluation(boolean matched, BiConsumer<Object, Description> mismatchDescriber) {
+        this.matched = matched;
+        this.mismatchDescriber = mismatchDescriber;
+    }
+
+    static Evaluation mismatch(Consumer<Description> mismatchDescriber) {
+        return new Evaluation(false, (item, description) -> mismatchDescriber.accept(description));
+    }
+
+    /**
+     * Creates a mismatch whose description needs the input. The input is passed when the mismatch is described,
+     * so the evaluation does not reference it.
+     */
+    static Evaluation mismatch(BiConsumer<Object, Description> mismatchDescriber) {
+        return new Evaluation(false, mismatchDescriber);
+    }
+
+    boolean isMatched() {
+        return matched;
+    }
+
+    void describeMismatch(Object item, Description description) {
+        mismatchDescriber.accept(item, description);
+    }
+
+    /**
+     * Creates a matcher that evaluates every input once, and reuses the evaluation for describing the mismatch.
+     */
+    static <T> Matcher<T> matcher(Class<? super T> inputType,
+                                  Consumer<Description> describer,
+                                  Function<T, Evaluation> evaluator) {
+        Function<T, Evaluation> cachedEvaluator = StreamMatchers.cacheResultFunction(evaluator);
+        return MatcherBuilder.<T>of(inputType)
+                .matches(item -> cachedEvaluator.apply(item).isMatched())
+                .description(describer)
+                .describeMismatch((item, description) -> cachedEvaluator.apply(item).describeMismatch(item, description))
+                .build();
+    }
+
+    /**
+     * Creates a matcher that evaluates the input every time, for inputs whose content can change between
+     * the evaluations, like files, and reuses the last evaluation for describing the mismatch of the same input.
+     * Only a mismatch is kept, with a weak reference to its input, and it is dropped once it was described.
+     * The mismatch describers receive the input instead of capturing it, so the matcher does not retain the inputs,
+     * even when the mismatch is never described.
+     */
+    static <T> Matcher<T> lastEvaluationMatcher(Class<? super T> inputType,
+                                                Consumer<Description> describer,
+                                                Function<T, Evaluation> evaluator) {
+        AtomicReference<LastMismatch> lastMismatch = new AtomicReference<>();
+        Function<T, Evaluation> evaluateAndKeep = item -> {
+            Evaluation evaluation = evaluator.apply(item);
+            lastMismatch.set(evaluation.isMatched() ? null : new LastMismatch(item, evaluation));
+            return evaluation;
+        };
+        return MatcherBuilder.<T>of(inputType)
+                .matches(item -> evaluateAndKeep.apply(item).isMatched())
+                .description(describer)
+                .describeMismatch((item, description) -> {
+                    LastMismatch last = lastMismatch.getAndSet(null);
+                    Evaluation evaluation = last != null && last.input.get() == item
+                            ? last.evaluation
+                            : evaluator.apply(item);
+                    evaluation.describeMismatch(item, description);
+                })
+                .build();
+    }
+
+    private static final class LastMismatch {
+
+        private final WeakReference<Object> input;
+        private final Evaluation evaluation;
+
+        private LastMismatch(Object input, Evaluation evaluation) {
+            this.input = new WeakReference<>(input);
+            this.evaluation = evaluation;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An {@code everyItem}/{@code hasItem} matcher for append-only collections, that remembers how many items of the
+ * last matched collection were already checked, and checks only the items appended since then.
+ * Items that were already checked are assumed not to change.
+ * <p>
+ * Lists are resumed directly from the first unchecked index. FIFO queues and deques are iterated from their head,
+ * but the already checked items are only skipped, not matched again. Any other collection, like a priority queue,
+ * is fully matched on every evaluation, as its iteration order is not guaranteed to be stable. The first item is
+ * remembered too, and the collection is fully matched again if it changed, for instance when a queue was consumed.
+ */
+final class IncrementalCollectionMatcher<T> extends TypeSafeMatcher<Collection<? extends T>> {
+
+    private final Matcher<? super T> itemMatcher;
+    private final boolean everyItem;
+    private final AtomicReference<Progress> lastProgress = new AtomicReference<>(Progress.NONE);
+
+    private IncrementalCollectionMatcher(Matcher<? super T> itemMatcher, boolean everyItem) {
+        super(Collection.class);
+        this.itemMatcher = itemMatcher;
+        this.everyItem = everyItem;
+    }
+
+    static <T> Matcher<Collection<? extends T>> everyItem(Matcher<? super T> itemMatcher) {
+        return new IncrementalCollectionMatcher<>(itemMatcher, true);
+    }
+
+    static <T> Matcher<Collection<? extends T>> hasItem(Matcher<? super T> itemMatcher) {
+        return new IncrementalCollectionMatcher<>(itemMatcher, false);
+    }
+
+    @Override
+    protected boolean matchesSafely(Collection<? extends T> collection) {
+        Progress progress = progressOf(collection);
+        if (progress.found) {
+            return true;
+        }
+        int checked = progress.checked;
+        boolean stopped = false;
+        Iterator<? extends T> iterator = iteratorFrom(collection, checked);
+        while (iterator.hasNext()) {
+            if (itemMatcher.matches(iterator.next()) != everyItem) {
+                stopped = true;
+                break;
+            }
+            checked++;
+        }
+        boolean found = !everyItem && stopped;
+        if (isAppendOnly(collection)) {
+            // a concurrent evaluation of another collection only resets the progress, the result stays correct
+            lastProgress.set(new Progress(collection, head(collection), checked, found));
+        }
+        return everyItem ? !stopped : found;
+    }
+
+    private Progress progressOf(Collection<? extends T> collection) {
+        Progress progress = lastProgress.get();
+        if (!isAppendOnly(collection) || progress.input.get() != collection || progress.checked > collection.size()
+                || progress.head.get() != head(collection)) {
+            return Progress.NONE;
+        }
+        return progress;
+    }
+
+    private static boolean isAppendOnly(Collection<?> collection) {
+        return collection instanceof List
+                || collection instanceof ArrayDeque
+                || collection instanceof ConcurrentLinkedQueue
+                || collection instanceof ConcurrentLinkedDeque
+                || collection instanceof LinkedBlockingQueue
+                || collection instanceof LinkedBlockingDeque
+                || collection instanceof ArrayBlockingQueue
+                || collection instanceof LinkedTransferQueue;
+    }
+
+    private static Object head(Collection<?> collection) {
+        Iterator<?> iterator = collection.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static <T> Iterator<? extends T> iteratorFrom(Collection<? extends T> collection, int index) {
+        if (collection instanceof List) {
+            return ((List<? extends T>) collection).listIterator(index);
+        }
+        Iterator<? extends T> iterator = collection.iterator();
+        for (int i = 0; i < index && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        return iterator;
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText(everyItem ? "every item is " : "a collection containing ")
+                .appendDescriptionOf(itemMatcher);
+    }
+
+    @Override
+    protected void describeMismatchSafely(Collection<? extends T> collection, Description description) {
+        Progress progress = progressOf(collection);
+        if (everyItem) {
+            Iterator<? extends T> iterator = iteratorFrom(collection, progress.checked);
+            for (int index = progress.checked; iterator.hasNext(); index++) {
+                T item = iterator.next();
+                if (!itemMatcher.matches(item)) {
+                    description.appendText("an item at index " + index + " ");
+                    itemMatcher.describeMismatch(item, description);
+                    return;
+                }
+            }
+        } else {
+            description.appendText("none of the " + collection.size() + " items matched");
+        }
+    }
+
+    private static final class Progress {
+        static final Progress NONE = new Progress(null, null, 0, false);
+
+        final WeakReference<Object> input;
+        final WeakReference<Object> head;
+        final int checked;
+        final boolean found;
+
+        Progress(Object input, Object head, int checked, boolean found) {
+            this.input = new WeakReference<>(input);
+            this.head = new WeakReference<>(head);
+            this.checked = checked;
+            this.found = found;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A bounded memory summary of a sequence of items, used for describing mismatches of huge iterables and streams.
+ * It keeps the first {@code limit} items, the last {@code limit} items, the first {@code limit} failing positions,
+ * the first failing item and the total counts. Two summaries of consecutive sequences can be combined, so it can
+ * be used as a parallel stream accumulator.
+ */
+final class ItemsSummary<T> implements Consumer<T> {
+
+    private static final String DESCRIPTION_LIMIT_PROPERTY = "lambdamatchers.descriptionItemLimit";
+    private static final int DEFAULT_DESCRIPTION_LIMIT = 10;
+
+    private final int limit;
+    private final Predicate<? super T> failure;
+    private final List<T> head;
+    private final Object[] tail;
+    private int tailStart;
+    private int tailSize;
+    private long count;
+    private final List<Long> failureIndexes;
+    private long failureCount;
+    private T firstFailure;
+
+    ItemsSummary(int limit, Predicate<? super T> failure) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The description limit must be positive, but was " + limit);
+        }
+        this.limit = limit;
+        this.failure = failure;
+        this.head = new ArrayList<>();
+        this.tail = new Object[limit];
+        this.failureIndexes = new ArrayList<>();
+    }
+
+    /**
+     * The number of items rendered from each end of the sequence, configurable through the
+     * {@code lambdamatchers.descriptionItemLimit} system property. A value lower than 1 is treated as 1.
+     */
+    static int defaultLimit() {
+        return Math.max(1, Integer.getInteger(DESCRIPTION_LIMIT_PROPERTY, DEFAULT_DESCRIPTION_LIMIT));
+    }
+
+    @Override
+    public void accept(T item) {
+        if (failure.test(item)) {
+            if (failureCount == 0) {
+                firstFailure = item;
+            }
+            if (failureIndexes.size() < limit) {
+                failureIndexes.add(count);
+            }
+            failureCount++;
+        }
+        if (head.size() < limit) {
+            head.add(item);
+        }
+        addToTail(item);
+        count++;
+    }
+
+    private void addToTail(Object item) {
+        if (tailSize < limit) {
+            tail[(tailStart + tailSize) % limit] = item;
+            tailSize++;
+        } else {
+            tail[tailStart] = item;
+            tailStart = (tailStart + 1) % limit;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T tailItem(int i) {
+        return (T) tail[(tailStart + i) % limit];
+    }
+
+    /**
+     * Appends the items summarized by {@code other}, which must follow the items of this summary.
+     */
+    ItemsSummary<T> combine(ItemsSummary<T> other) {
+        for (int i = 0; i < other.head.size() && head.size() < limit; i++) {
+            head.add(other.head.get(i));
+        }
+        for (int i = 0; i < other.tailSize; i++) {
+            addToTail(other.tailItem(i));
+        }
+        if (failureCount == 0 && other.failureCount > 0) {
+            firstFailure = other.firstFailure;
+        }
+        for (int i = 0; i < other.failureIndexes.size() && failureIndexes.size() < limit; i++) {
+            failureIndexes.add(count + other.failureIndexes.get(i));
+        }
+        failureCount += other.failureCount;
+        count += other.count;
+        return this;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getFailureCount() {
+        return failureCount;
+    }
+
+    T getFirstFailure() {
+        return firstFailure;
+    }
+
+    /**
+     * Appends the failure counts, the failing positions, the mismatch of the first failing item and the items.
+     */
+    void describeMismatch(Matcher<?> itemMatcher, Description description) {
+        description.appendText(failureCount + " of " + count + " items did not match, at indexes ");
+        describeFailureIndexes(description);
+        description.appendText("; first mismatch: ");
+        itemMatcher.describeMismatch(firstFailure, description);
+        description.appendText("; items: ");
+        describeItems(description, ", ");
+    }
+
+    /**
+     * Appends the first and the last items, and the total count when some items were left out.
+     */
+    void describeItems(Description description, String separator) {
+        description.appendText("[");
+        for (int i = 0; i < head.size(); i++) {
+            if (i > 0) {
+                description.appendText(separator);
+            }
+            description.appendValue(head.get(i));
+        }
+        long firstTailIndex = count - tailSize;
+        boolean truncated = firstTailIndex > head.size();
+        if (truncated) {
+            description.appendText(separator).appendText("...");
+        }
+        for (int i = 0; i < tailSize; i++) {
+            if (firstTailIndex + i >= head.size()) {
+                description.appendText(separator).appendValue(tailItem(i));
+            }
+        }
+        description.appendText("]");
+        if (truncated) {
+            description.appendText(" (" + count + " items)");
+        }
+    }
+
+    /**
+     * Appends the first failing positions, and how many failures were left out.
+     */
+    void describeFailureIndexes(Description description) {
+        description.appendText("[");
+        for (int i = 0; i < failureIndexes.size(); i++) {
+            if (i > 0) {
+                description.appendText(", ");
+            }
+            description.appendText(String.valueOf(failureIndexes.get(i)));
+        }
+        if (failureCount > failureIndexes.size()) {
+            description.appendText(", ... (" + (failureCount - failureIndexes.size()) + " more)");
+        }
+        description.appendText("]");
+    }
+}
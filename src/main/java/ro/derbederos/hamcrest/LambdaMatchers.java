@@ -182,6 +182,44 @@ public final class LambdaMatchers {
         return TypeResolverFeatureMatcherFactory.featureArray(featureExtractor, iterableMatcher);
     }
 
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every item of an iterable matches the given {@code itemMatcher},
+     * with a bounded memory mismatch description, meant for huge iterables. The mismatch description shows the
+     * number of failing items, their positions, the first and the last {@code descriptionLimit} items and the total
+     * number of items, instead of rendering every item. No more than {@code descriptionLimit} items or positions
+     * of each kind are kept in memory.
+     * </p>
+     * <p>
+     * It can be used on its own, or as the iterable matcher of {@link #featureIterable(Function, Matcher)} and
+     * {@link #featureArray(Function, Matcher)}.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(list, featureIterable(Person::getAge, everyItem(greaterThanOrEqualTo(21), 10)));
+     * </pre>
+     *
+     * @param itemMatcher      The matcher to be applied on every item of the iterable.
+     * @param descriptionLimit The maximum number of items and positions rendered from each end of the iterable.
+     * @param <T>              The type of the elements in the input iterable.
+     * @since 0.20
+     */
+    public static <T> Matcher<Iterable<? super T>> everyItem(Matcher<? super T> itemMatcher, int descriptionLimit) {
+        // an iterable can change between the evaluations, so only the summary of the last mismatch is reused
+        return Evaluation.lastEvaluationMatcher(Iterable.class,
+                description -> description.appendText("every item is ").appendDescriptionOf(itemMatcher),
+                iterable -> {
+                    ItemsSummary<Object> summary = new ItemsSummary<>(descriptionLimit,
+                            item -> !itemMatcher.matches(item));
+                    iterable.forEach(summary);
+                    return summary.getFailureCount() == 0
+                            ? Evaluation.MATCHED
+                            : Evaluation.mismatch(description -> summary.describeMismatch(itemMatcher, description));
+                });
+    }
+
     /**
      * <p>
      * This is an assert function that takes as input a supplier and a matcher for its value.
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Searches patterns in inputs that are too large to be held in memory as strings.
+ * <p>
+ * Files that fit in a {@link CharSequence} and are encoded in ISO-8859-1, or are pure ASCII in US-ASCII or UTF-8,
+ * are memory-mapped and searched in place through an {@link AsciiCharSequence} view, with the exact semantics of
+ * {@link Matcher#find()}. Any other file and any {@link Reader} is searched through a sliding window, read in chunks:
+ * a match, including the characters examined by its look-ahead, is assumed to be at most
+ * {@link #MAX_MATCH_LENGTH} characters long, so that the heap used is bounded.
+ * </p>
+ */
+final class LargeInputSearch {
+
+    static final int MAX_MATCH_LENGTH = 1 << 16;
+    private static final int CHUNK_LENGTH = 1 << 16;
+    // kept before the search position for look-behind and word boundaries
+    private static final int CONTEXT_LENGTH = 1 << 10;
+
+    private LargeInputSearch() {
+    }
+
+    static Evaluation searchFile(Pattern pattern, Predicate<CharSequence> find, Path path, Charset charset) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= Integer.MAX_VALUE && isAsciiCompatible(charset)) {
+                ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                AsciiCharSequence view = AsciiCharSequence.of(bytes);
+                if (charset.equals(StandardCharsets.ISO_8859_1) || view.isAscii()) {
+                    return find.test(view) ? Evaluation.MATCHED : notFound("file ", true, view.length());
+                }
+            }
+            Reader reader = new InputStreamReader(Channels.newInputStream(channel), charset);
+            long charsRead = find(pattern, reader, MAX_MATCH_LENGTH);
+            return charsRead < 0 ? Evaluation.MATCHED : notFound("file ", true, charsRead);
+        } catch (IOException e) {
+            return Evaluation.mismatch((input, description) -> description.appendText("file ").appendValue(input)
+                    .appendText(" could not be read: " + e));
+        }
+    }
+
+    static Evaluation searchReader(Pattern pattern, Reader reader) {
+        try {
+            long charsRead = find(pattern, reader, MAX_MATCH_LENGTH);
+            return charsRead < 0 ? Evaluation.MATCHED : notFound("reader", false, charsRead);
+        } catch (IOException e) {
+            return Evaluation.mismatch(description -> description.appendText("reader could not be read: " + e));
+        }
+    }
+
+    static Evaluation notFound(String inputName, boolean showInput, long length) {
+        return Evaluation.mismatch((input, description) -> {
+            description.appendText(inputName);
+            if (showInput) {
+                description.appendValue(input);
+            }
+            description.appendText(" did not contain it in " + length + " characters");
+        });
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        return charset.equals(StandardCharsets.ISO_8859_1) || charset.equals(StandardCharsets.US_ASCII) ||
+                charset.equals(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Searches the pattern in the characters of the reader, through a sliding window.
+     *
+     * @return {@code -1} if the pattern was found, otherwise the number of characters read.
+     */
+    static long find(Pattern pattern, Reader reader, int maxMatchLength) throws IOException {
+        int chunkLength = Math.max(CHUNK_LENGTH, maxMatchLength);
+        char[] chunk = new char[chunkLength];
+        StringBuilder window = new StringBuilder();
+        Matcher matcher = pattern.matcher(window)
+                .useTransparentBounds(true)
+                .useAnchoringBounds(false);
+        long offset = 0;
+        int searchFrom = 0;
+        boolean endOfInput = false;
+        while (true) {
+            int read = fill(reader, chunk);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                window.append(chunk, 0, read);
+            }
+            matcher.reset(window).region(searchFrom, window.length());
+            if (matcher.find()) {
+                if (endOfInput || !matcher.requireEnd()) {
+                    return -1;
+                }
+                // more input could lose the match, e.g. a trailing $ or \b, so it is searched again with more input
+                searchFrom = Math.max(searchFrom, window.length() - maxMatchLength);
+            } else if (endOfInput) {
+                return offset + window.length();
+            } else if (matcher.hitEnd()) {
+                // a match might start in the last characters, and complete with more input
+                searchFrom = Math.max(searchFrom, window.length() - maxMatchLength);
+            } else {
+                searchFrom = window.length();
+            }
+            int discarded = searchFrom - CONTEXT_LENGTH;
+            if (discarded >= chunkLength) {
+                // the first character is never a search position, so ^ and \A cannot match at the window start
+                window.delete(0, discarded);
+                offset += discarded;
+                searchFrom -= discarded;
+            }
+        }
+    }
+
+    /**
+     * Reads until the chunk is full or the input ends, so a slow reader does not trigger a search per short read.
+     * Returns -1 only when no character was read before the end of the input.
+     */
+    private static int fill(Reader reader, char[] chunk) throws IOException {
+        int filled = 0;
+        while (filled < chunk.length) {
+            int read = reader.read(chunk, filled, chunk.length - filled);
+            if (read < 0) {
+                return filled == 0 ? -1 : filled;
+            }
+            filled += read;
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,879 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A regex engine with guaranteed linear matching time, for the regular subset of the {@link Pattern} syntax.
+ * <p>
+ * The pattern is compiled into a Thompson NFA, which is evaluated as a lazily built DFA: the DFA states are sets
+ * of NFA states, created on demand and cached together with their transitions for the Latin-1 characters.
+ * Every input character costs at most one NFA step, whatever the pattern, so there is no backtracking.
+ * The cache is shared by all the threads using the pattern, and is bounded: once full, the new states are
+ * computed without being cached, which keeps the matching time linear.
+ * </p>
+ * <p>
+ * Supported: literals and escapes ({@code \t \n \r \f \a \e \xhh \x{h...}}, Unicode escapes, escaped punctuation and
+ * {@code \Q...\E}), {@code .}, {@code \d \D \w \W \s \S}, character classes with ranges and negation, groups
+ * (capturing, named and non-capturing, all treated as non-capturing), alternation, greedy and lazy quantifiers,
+ * {@code ^}/{@code \A} at the start and {@code $}/{@code \z} at the end of the pattern, and the {@link Pattern#DOTALL},
+ * {@link Pattern#UNIX_LINES} and {@link Pattern#LITERAL} flags. Everything else, like back references,
+ * look-arounds, possessive quantifiers, word boundaries, Unicode properties or case insensitive matching,
+ * is not supported, and {@link #compile(Pattern)} returns {@code null} for such patterns.
+ * </p>
+ */
+final class LinearRegex {
+
+    private static final String ENGINE_PROPERTY = "lambdamatchers.regexEngine";
+    private static final boolean DEFAULT_ENGINE = "linear".equalsIgnoreCase(System.getProperty(ENGINE_PROPERTY));
+
+    private static final int MAX_NFA_STATES = 10_000;
+    private static final int MAX_DFA_STATES = 10_000;
+    private static final int CACHED_TRANSITIONS = 256;
+    private static final int SUPPORTED_FLAGS = Pattern.DOTALL | Pattern.UNIX_LINES | Pattern.MULTILINE |
+            Pattern.UNICODE_CASE | Pattern.LITERAL;
+
+    private static final int CHAR = 0;
+    private static final int SPLIT = 1;
+    private static final int MATCH = 2;
+
+    private static final int NO_ANCHOR = 0;
+    private static final int END_OF_INPUT = 1;
+    private static final int END_OF_LINE = 2;
+
+    private final int[] types;
+    private final int[] out1;
+    private final int[] out2;
+    private final CharClass[] classes;
+    private final int start;
+    private final boolean anchoredStart;
+    private final int endAnchor;
+    private final boolean unixLines;
+    private final Dfa matchesDfa;
+    private final Dfa findDfa;
+
+    private LinearRegex(NfaBuilder nfa, int start, boolean anchoredStart, int endAnchor, boolean unixLines) {
+        this.types = Arrays.copyOf(nfa.types, nfa.count);
+        this.out1 = Arrays.copyOf(nfa.out1, nfa.count);
+        this.out2 = Arrays.copyOf(nfa.out2, nfa.count);
+        this.classes = Arrays.copyOf(nfa.classes, nfa.count);
+        this.start = start;
+        this.anchoredStart = anchoredStart;
+        this.endAnchor = endAnchor;
+        this.unixLines = unixLines;
+        this.matchesDfa = new Dfa(false);
+        this.findDfa = new Dfa(!anchoredStart);
+    }
+
+    /**
+     * Returns {@code true} if the linear engine was selected globally, with the {@code lambdamatchers.regexEngine}
+     * system property set to {@code linear}.
+     */
+    static boolean isDefaultEngine() {
+        return DEFAULT_ENGINE;
+    }
+
+    /**
+     * Compiles the pattern for the linear engine, or returns {@code null} if the pattern uses unsupported constructs.
+     */
+    static LinearRegex compile(Pattern pattern) {
+        int flags = pattern.flags();
+        if ((flags & ~SUPPORTED_FLAGS) != 0) {
+            return null;
+        }
+        try {
+            Parser parser = new Parser(pattern.pattern(), flags);
+            Node node = parser.parse();
+            if ((flags & Pattern.MULTILINE) != 0 && (parser.anchoredStart || parser.endAnchor != NO_ANCHOR)) {
+                return null;
+            }
+            NfaBuilder nfa = new NfaBuilder();
+            int match = nfa.add(MATCH, null, -1, -1);
+            int start = node.compile(nfa, match);
+            return new LinearRegex(nfa, start, parser.anchoredStart, parser.endAnchor,
+                    (flags & Pattern.UNIX_LINES) != 0);
+        } catch (UnsupportedSyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Equivalent of {@code pattern.matcher(input).matches()}.
+     */
+    boolean matches(CharSequence input) {
+        DfaState state = matchesDfa.initial;
+        for (int i = 0; i < input.length(); ) {
+            int codePoint = Character.codePointAt(input, i);
+            i += Character.charCount(codePoint);
+            state = matchesDfa.step(state, codePoint);
+            if (state.nfaStates.length == 0) {
+                return false;
+            }
+        }
+        return state.accepting;
+    }
+
+    /**
+     * Equivalent of {@code pattern.matcher(input).find()}.
+     */
+    boolean find(CharSequence input) {
+        int length = input.length();
+        DfaState state = findDfa.initial;
+        if (state.accepting && acceptsAt(input, 0)) {
+            return true;
+        }
+        for (int i = 0; i < length; ) {
+            int codePoint = Character.codePointAt(input, i);
+            i += Character.charCount(codePoint);
+            state = findDfa.step(state, codePoint);
+            if (state.accepting && acceptsAt(input, i)) {
+                return true;
+            }
+            if (state.nfaStates.length == 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean acceptsAt(CharSequence input, int position) {
+        int length = input.length();
+        if (endAnchor == NO_ANCHOR || position == length) {
+            return true;
+        }
+        if (endAnchor == END_OF_INPUT) {
+            return false;
+        }
+        // $ also matches before a line terminator at the end of the input
+        if (position == length - 1) {
+            char last = input.charAt(position);
+            if (unixLines) {
+                return last == '\n';
+            }
+            return isLineTerminator(last) && !(last == '\n' && position > 0 && input.charAt(position - 1) == '\r');
+        }
+        return !unixLines && position == length - 2 && input.charAt(position) == '\r' &&
+                input.charAt(position + 1) == '\n';
+    }
+
+    private static boolean isLineTerminator(int c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private final class Dfa {
+        private final boolean restart;
+        private final Map<StateKey, DfaState> states = new ConcurrentHashMap<>();
+        private final DfaState initial;
+
+        private Dfa(boolean restart) {
+            this.restart = restart;
+            StateBuilder builder = new StateBuilder();
+            builder.addClosure(start);
+            this.initial = intern(builder.toArray());
+        }
+
+        DfaState step(DfaState from, int codePoint) {
+            boolean cacheable = codePoint < CACHED_TRANSITIONS;
+            if (cacheable) {
+                // a racy read is safe, the states are immutable and the transitions are idempotent
+                DfaState next = from.next[codePoint];
+                if (next != null) {
+                    return next;
+                }
+            }
+            StateBuilder builder = new StateBuilder();
+            for (int nfaState : from.nfaStates) {
+                if (types[nfaState] == CHAR && classes[nfaState].contains(codePoint)) {
+                    builder.addClosure(out1[nfaState]);
+                }
+            }
+            if (restart) {
+                builder.addClosure(start);
+            }
+            DfaState next = intern(builder.toArray());
+            if (cacheable && next.cached) {
+                from.next[codePoint] = next;
+            }
+            return next;
+        }
+
+        private DfaState intern(int[] nfaStates) {
+            StateKey key = new StateKey(nfaStates);
+            DfaState state = states.get(key);
+            if (state != null) {
+                return state;
+            }
+            if (states.size() >= MAX_DFA_STATES) {
+                return new DfaState(nfaStates, isAccepting(nfaStates), false);
+            }
+            return states.computeIfAbsent(key, k -> new DfaState(nfaStates, isAccepting(nfaStates), true));
+        }
+
+        private boolean isAccepting(int[] nfaStates) {
+            for (int nfaState : nfaStates) {
+                if (types[nfaState] == MATCH) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final class StateBuilder {
+        private final boolean[] seen = new boolean[types.length];
+        private final int[] stack = new int[types.length];
+        private int[] states = new int[8];
+        private int count;
+
+        void addClosure(int nfaState) {
+            int top = 0;
+            stack[top++] = nfaState;
+            while (top > 0) {
+                int state = stack[--top];
+                if (seen[state]) {
+                    continue;
+                }
+                seen[state] = true;
+                if (types[state] == SPLIT) {
+                    stack[top++] = out2[state];
+                    stack[top++] = out1[state];
+                } else {
+                    if (count == states.length) {
+                        states = Arrays.copyOf(states, count * 2);
+                    }
+                    states[count++] = state;
+                }
+            }
+        }
+
+        int[] toArray() {
+            int[] result = Arrays.copyOf(states, count);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    private static final class DfaState {
+        private final int[] nfaStates;
+        private final boolean accepting;
+        private final boolean cached;
+        private final DfaState[] next = new DfaState[CACHED_TRANSITIONS];
+
+        private DfaState(int[] nfaStates, boolean accepting, boolean cached) {
+            this.nfaStates = nfaStates;
+            this.accepting = accepting;
+            this.cached = cached;
+        }
+    }
+
+    private static final class StateKey {
+        private final int[] nfaStates;
+        private final int hashCode;
+
+        private StateKey(int[] nfaStates) {
+            this.nfaStates = nfaStates;
+            this.hashCode = Arrays.hashCode(nfaStates);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(nfaStates, ((StateKey) o).nfaStates);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class NfaBuilder {
+        private int[] types = new int[16];
+        private int[] out1 = new int[16];
+        private int[] out2 = new int[16];
+        private CharClass[] classes = new CharClass[16];
+        private int count;
+
+        int add(int type, CharClass charClass, int next1, int next2) throws UnsupportedSyntaxException {
+            if (count == MAX_NFA_STATES) {
+                throw new UnsupportedSyntaxException();
+            }
+            if (count == types.length) {
+                types = Arrays.copyOf(types, count * 2);
+                out1 = Arrays.copyOf(out1, count * 2);
+                out2 = Arrays.copyOf(out2, count * 2);
+                classes = Arrays.copyOf(classes, count * 2);
+            }
+            types[count] = type;
+            classes[count] = charClass;
+            out1[count] = next1;
+            out2[count] = next2;
+            return count++;
+        }
+    }
+
+    /**
+     * A node of the syntax tree, compiled backwards: every node receives the NFA state that follows it.
+     */
+    private interface Node {
+        int compile(NfaBuilder nfa, int next) throws UnsupportedSyntaxException;
+    }
+
+    private static final class CharNode implements Node {
+        private final CharClass charClass;
+
+        private CharNode(CharClass charClass) {
+            this.charClass = charClass;
+        }
+
+        @Override
+        public int compile(NfaBuilder nfa, int next) throws UnsupportedSyntaxException {
+            return nfa.add(CHAR, charClass, next, -1);
+        }
+    }
+
+    private static final class ConcatNode implements Node {
+        private final List<Node> nodes;
+
+        private ConcatNode(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public int compile(NfaBuilder nfa, int next) throws UnsupportedSyntaxException {
+            int state = next;
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                state = nodes.get(i).compile(nfa, state);
+            }
+            return state;
+        }
+    }
+
+    private static final class AlternationNode implements Node {
+        private final List<Node> alternatives;
+
+        private AlternationNode(List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        @Override
+        public int compile(NfaBuilder nfa, int next) throws UnsupportedSyntaxException {
+            int state = alternatives.get(alternatives.size() - 1).compile(nfa, next);
+            for (int i = alternatives.size() - 2; i >= 0; i--) {
+                state = nfa.add(SPLIT, null, alternatives.get(i).compile(nfa, next), state);
+            }
+            return state;
+        }
+    }
+
+    private static final class RepeatNode implements Node {
+        private static final int UNBOUNDED = -1;
+
+        private final Node node;
+        private final int min;
+        private final int max;
+
+        private RepeatNode(Node node, int min, int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public int compile(NfaBuilder nfa, int next) throws UnsupportedSyntaxException {
+            int state;
+            if (max == UNBOUNDED) {
+                int loop = nfa.add(SPLIT, null, -1, next);
+                // compiled before the assignment, the arrays may be reallocated while compiling
+                int body = node.compile(nfa, loop);
+                nfa.out1[loop] = body;
+                state = loop;
+            } else {
+                state = next;
+                for (int i = min; i < max; i++) {
+                    state = nfa.add(SPLIT, null, node.compile(nfa, state), next);
+                }
+            }
+            for (int i = 0; i < min; i++) {
+                state = node.compile(nfa, state);
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Code point ranges, as sorted, disjoint and non adjacent pairs of inclusive bounds.
+     */
+    static final class CharClass {
+        static final CharClass DIGIT = ranges('0', '9');
+        static final CharClass WORD = ranges('0', '9', 'A', 'Z', '_', '_', 'a', 'z');
+        static final CharClass SPACE = ranges('\t', '\r', ' ', ' ');
+        static final CharClass ANY = ranges(0, Character.MAX_CODE_POINT);
+        static final CharClass NOT_LINE_TERMINATOR = union(ranges('\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029))
+                .negate();
+        static final CharClass NOT_NEWLINE = ranges('\n', '\n').negate();
+
+        private final int[] bounds;
+
+        private CharClass(int[] bounds) {
+            this.bounds = bounds;
+        }
+
+        static CharClass ranges(int... bounds) {
+            return union(new CharClass(bounds));
+        }
+
+        static CharClass union(CharClass... charClasses) {
+            List<int[]> ranges = new ArrayList<>();
+            for (CharClass charClass : charClasses) {
+                for (int i = 0; i < charClass.bounds.length; i += 2) {
+                    ranges.add(new int[]{charClass.bounds[i], charClass.bounds[i + 1]});
+                }
+            }
+            ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+            int[] bounds = new int[ranges.size() * 2];
+            int count = 0;
+            for (int[] range : ranges) {
+                if (count > 0 && range[0] <= bounds[count - 1] + 1) {
+                    bounds[count - 1] = Math.max(bounds[count - 1], range[1]);
+                } else {
+                    bounds[count++] = range[0];
+                    bounds[count++] = range[1];
+                }
+            }
+            return new CharClass(Arrays.copyOf(bounds, count));
+        }
+
+        CharClass negate() {
+            int[] negated = new int[bounds.length + 2];
+            int count = 0;
+            int next = 0;
+            for (int i = 0; i < bounds.length; i += 2) {
+                if (bounds[i] > next) {
+                    negated[count++] = next;
+                    negated[count++] = bounds[i] - 1;
+                }
+                next = bounds[i + 1] + 1;
+            }
+            if (next <= Character.MAX_CODE_POINT) {
+                negated[count++] = next;
+                negated[count++] = Character.MAX_CODE_POINT;
+            }
+            return new CharClass(Arrays.copyOf(negated, count));
+        }
+
+        boolean contains(int codePoint) {
+            int low = 0;
+            int high = bounds.length / 2 - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (codePoint < bounds[middle * 2]) {
+                    high = middle - 1;
+                } else if (codePoint > bounds[middle * 2 + 1]) {
+                    low = middle + 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A recursive descent parser for the supported subset. The pattern was already compiled by {@link Pattern},
+     * so the syntax is valid, and anything that is not understood is reported as unsupported.
+     */
+    private static final class Parser {
+        private final String regex;
+        private final int flags;
+        private int position;
+        private int depth;
+        private boolean anchoredStart;
+        private int endAnchor = NO_ANCHOR;
+
+        private Parser(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        Node parse() throws UnsupportedSyntaxException {
+            if ((flags & Pattern.LITERAL) != 0) {
+                List<Node> nodes = new ArrayList<>();
+                regex.codePoints().forEach(codePoint -> nodes.add(new CharNode(CharClass.ranges(codePoint, codePoint))));
+                return new ConcatNode(nodes);
+            }
+            if (regex.startsWith("^")) {
+                anchoredStart = true;
+                position = 1;
+            } else if (regex.startsWith("\\A")) {
+                anchoredStart = true;
+                position = 2;
+            }
+            Node node = parseAlternation();
+            if (position != regex.length() || anchoredStart && node instanceof AlternationNode ||
+                    endAnchor != NO_ANCHOR && node instanceof AlternationNode) {
+                throw new UnsupportedSyntaxException();
+            }
+            return node;
+        }
+
+        private Node parseAlternation() throws UnsupportedSyntaxException {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseConcatenation());
+            while (peek() == '|') {
+                position++;
+                alternatives.add(parseConcatenation());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new AlternationNode(alternatives);
+        }
+
+        private Node parseConcatenation() throws UnsupportedSyntaxException {
+            List<Node> nodes = new ArrayList<>();
+            while (position < regex.length() && peek() != '|' && peek() != ')') {
+                if (isEndAnchor()) {
+                    continue;
+                }
+                if (regex.startsWith("\\Q", position)) {
+                    // a quantifier after a quotation applies to its last character
+                    parseQuotation(nodes);
+                    if (!nodes.isEmpty()) {
+                        nodes.add(parseQuantifier(nodes.remove(nodes.size() - 1)));
+                    }
+                    continue;
+                }
+                nodes.add(parseQuantifier(parseAtom()));
+            }
+            return nodes.size() == 1 ? nodes.get(0) : new ConcatNode(nodes);
+        }
+
+        private boolean isEndAnchor() throws UnsupportedSyntaxException {
+            int length;
+            int anchor;
+            if (peek() == '$') {
+                length = 1;
+                anchor = END_OF_LINE;
+            } else if (regex.startsWith("\\z", position)) {
+                length = 2;
+                anchor = END_OF_INPUT;
+            } else if (peek() == '^' || regex.startsWith("\\A", position) || regex.startsWith("\\Z", position)) {
+                // start anchors are only supported at the start of the pattern
+                throw new UnsupportedSyntaxException();
+            } else {
+                return false;
+            }
+            if (depth > 0 || position + length != regex.length()) {
+                throw new UnsupportedSyntaxException();
+            }
+            position += length;
+            endAnchor = anchor;
+            return true;
+        }
+
+        private Node parseAtom() throws UnsupportedSyntaxException {
+            int c = regex.codePointAt(position);
+            switch (c) {
+                case '(':
+                    return parseGroup();
+                case '[':
+                    position++;
+                    return new CharNode(parseClass());
+                case '.':
+                    position++;
+                    return new CharNode((flags & Pattern.DOTALL) != 0 ? CharClass.ANY
+                            : (flags & Pattern.UNIX_LINES) != 0 ? CharClass.NOT_NEWLINE
+                            : CharClass.NOT_LINE_TERMINATOR);
+                case '\\':
+                    position++;
+                    return new CharNode(parseEscape(false));
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw new UnsupportedSyntaxException();
+                default:
+                    position += Character.charCount(c);
+                    return new CharNode(CharClass.ranges(c, c));
+            }
+        }
+
+        private Node parseGroup() throws UnsupportedSyntaxException {
+            position++;
+            if (peek() == '?') {
+                if (regex.startsWith("?:", position)) {
+                    position += 2;
+                } else if (regex.startsWith("?<", position) && position + 2 < regex.length() &&
+                        Character.isLetter(regex.charAt(position + 2))) {
+                    int end = regex.indexOf('>', position);
+                    if (end < 0) {
+                        throw new UnsupportedSyntaxException();
+                    }
+                    position = end + 1;
+                } else {
+                    // look-arounds, atomic groups and inline flags
+                    throw new UnsupportedSyntaxException();
+                }
+            }
+            depth++;
+            Node node = parseAlternation();
+            depth--;
+            if (peek() != ')') {
+                throw new UnsupportedSyntaxException();
+            }
+            position++;
+            return node;
+        }
+
+        private void parseQuotation(List<Node> nodes) {
+            position += 2;
+            int end = regex.indexOf("\\E", position);
+            String quoted = regex.substring(position, end < 0 ? regex.length() : end);
+            position = end < 0 ? regex.length() : end + 2;
+            quoted.codePoints().forEach(codePoint -> nodes.add(new CharNode(CharClass.ranges(codePoint, codePoint))));
+        }
+
+        private Node parseQuantifier(Node atom) throws UnsupportedSyntaxException {
+            int min;
+            int max;
+            switch (peek()) {
+                case '*':
+                    min = 0;
+                    max = RepeatNode.UNBOUNDED;
+                    position++;
+                    break;
+                case '+':
+                    min = 1;
+                    max = RepeatNode.UNBOUNDED;
+                    position++;
+                    break;
+                case '?':
+                    min = 0;
+                    max = 1;
+                    position++;
+                    break;
+                case '{':
+                    position++;
+                    min = parseNumber();
+                    if (peek() == ',') {
+                        position++;
+                        max = peek() == '}' ? RepeatNode.UNBOUNDED : parseNumber();
+                    } else {
+                        max = min;
+                    }
+                    if (peek() != '}') {
+                        throw new UnsupportedSyntaxException();
+                    }
+                    position++;
+                    break;
+                default:
+                    return atom;
+            }
+            if (peek() == '?') {
+                // lazy quantifiers accept the same inputs
+                position++;
+            }
+            if (peek() == '+' || peek() == '*' || peek() == '?' || peek() == '{') {
+                // possessive or stacked quantifiers
+                throw new UnsupportedSyntaxException();
+            }
+            return new RepeatNode(atom, min, max);
+        }
+
+        private int parseNumber() throws UnsupportedSyntaxException {
+            int begin = position;
+            while (position < regex.length() && regex.charAt(position) >= '0' && regex.charAt(position) <= '9') {
+                position++;
+            }
+            if (position == begin || position - begin > 4) {
+                throw new UnsupportedSyntaxException();
+            }
+            return Integer.parseInt(regex.substring(begin, position));
+        }
+
+        private CharClass parseClass() throws UnsupportedSyntaxException {
+            boolean negated = false;
+            if (peek() == '^') {
+                negated = true;
+                position++;
+            }
+            if (peek() == ']') {
+                throw new UnsupportedSyntaxException();
+            }
+            List<CharClass> items = new ArrayList<>();
+            while (true) {
+                if (position >= regex.length()) {
+                    throw new UnsupportedSyntaxException();
+                }
+                int c = regex.codePointAt(position);
+                if (c == ']') {
+                    position++;
+                    break;
+                }
+                if (c == '[' || regex.startsWith("&&", position) || regex.startsWith("\\Q", position)) {
+                    throw new UnsupportedSyntaxException();
+                }
+                int low;
+                if (c == '\\') {
+                    position++;
+                    CharClass escape = parseEscape(true);
+                    if (!isSingle(escape)) {
+                        if (peek() == '-') {
+                            throw new UnsupportedSyntaxException();
+                        }
+                        items.add(escape);
+                        continue;
+                    }
+                    low = escape.bounds[0];
+                } else {
+                    low = c;
+                    position += Character.charCount(c);
+                }
+                int high = low;
+                if (peek() == '-' && position + 1 < regex.length() && regex.charAt(position + 1) != ']') {
+                    position++;
+                    int next = regex.codePointAt(position);
+                    if (next == '[') {
+                        throw new UnsupportedSyntaxException();
+                    }
+                    if (next == '\\') {
+                        position++;
+                        CharClass escape = parseEscape(true);
+                        if (!isSingle(escape)) {
+                            throw new UnsupportedSyntaxException();
+                        }
+                        high = escape.bounds[0];
+                    } else {
+                        high = next;
+                        position += Character.charCount(next);
+                    }
+                    if (high < low) {
+                        throw new UnsupportedSyntaxException();
+                    }
+                }
+                items.add(CharClass.ranges(low, high));
+            }
+            CharClass charClass = CharClass.union(items.toArray(new CharClass[0]));
+            return negated ? charClass.negate() : charClass;
+        }
+
+        private static boolean isSingle(CharClass charClass) {
+            return charClass.bounds.length == 2 && charClass.bounds[0] == charClass.bounds[1];
+        }
+
+        /**
+         * Parses the escape following a backslash, as a character class or as a single code point.
+         */
+        private CharClass parseEscape(boolean inClass) throws UnsupportedSyntaxException {
+            if (position >= regex.length()) {
+                throw new UnsupportedSyntaxException();
+            }
+            int c = regex.codePointAt(position);
+            position += Character.charCount(c);
+            switch (c) {
+                case 't':
+                    return single('\t');
+                case 'n':
+                    return single('\n');
+                case 'r':
+                    return single('\r');
+                case 'f':
+                    return single('\f');
+                case 'a':
+                    return single('\u0007');
+                case 'e':
+                    return single('\u001B');
+                case 'd':
+                    return CharClass.DIGIT;
+                case 'D':
+                    return CharClass.DIGIT.negate();
+                case 'w':
+                    return CharClass.WORD;
+                case 'W':
+                    return CharClass.WORD.negate();
+                case 's':
+                    return CharClass.SPACE;
+                case 'S':
+                    return CharClass.SPACE.negate();
+                case 'x':
+                    return single(parseHexEscape());
+                case 'u':
+                    int codePoint = parseHex(4);
+                    if (Character.isSurrogate((char) codePoint)) {
+                        throw new UnsupportedSyntaxException();
+                    }
+                    return single(codePoint);
+                default:
+                    if (c < 128 && Character.isLetterOrDigit(c)) {
+                        throw new UnsupportedSyntaxException();
+                    }
+                    return single(c);
+            }
+        }
+
+        private int parseHexEscape() throws UnsupportedSyntaxException {
+            if (peek() != '{') {
+                return parseHex(2);
+            }
+            int end = regex.indexOf('}', position);
+            if (end < 0 || end - position > 7) {
+                throw new UnsupportedSyntaxException();
+            }
+            position++;
+            int codePoint = parseHex(end - position);
+            position++;
+            if (codePoint > Character.MAX_CODE_POINT || Character.isSurrogate((char) codePoint)) {
+                throw new UnsupportedSyntaxException();
+            }
+            return codePoint;
+        }
+
+        private int parseHex(int digits) throws UnsupportedSyntaxException {
+            if (digits == 0 || position + digits > regex.length()) {
+                throw new UnsupportedSyntaxException();
+            }
+            int value = 0;
+            for (int i = 0; i < digits; i++) {
+                int digit = Character.digit(regex.charAt(position++), 16);
+                if (digit < 0) {
+                    throw new UnsupportedSyntaxException();
+                }
+                value = value * 16 + digit;
+            }
+            return value;
+        }
+
+        private static CharClass single(int codePoint) {
+            return CharClass.ranges(codePoint, codePoint);
+        }
+
+        private int peek() {
+            return position < regex.length() ? regex.charAt(position) : -1;
+        }
+    }
+
+    private static final class UnsupportedSyntaxException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedSyntaxException() {
+            super(null, null, false, false);
+        }
+    }
+}
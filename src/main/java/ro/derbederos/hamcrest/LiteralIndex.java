@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * An Aho-Corasick automaton over the required literals of a set of patterns, that finds in a single pass over
+ * the input the patterns whose required literal occurs in it.
+ * <p>
+ * The required literal of a pattern is the longest run of literal characters that every match of the pattern
+ * contains. It is extracted conservatively: patterns with a top level alternation, inline flags at the top level,
+ * back references or flags that change the meaning of literal characters have no required literal, and
+ * must always be evaluated.
+ * </p>
+ */
+final class LiteralIndex {
+
+    private static final int UNSUPPORTED_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.CANON_EQ | Pattern.COMMENTS;
+    private static final String CONTROL_ESCAPES = "tnrfae";
+    private static final String CONTROL_CHARS = "\t\n\r\f\u0007\u001B";
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final long[] keys;
+    private final int[] targets;
+    private final int mask;
+    private final int[] failures;
+    private final int[][] outputs;
+
+    /**
+     * Creates the index of the given literals, where the literal at position {@code i} belongs to
+     * the pattern {@code i}. The {@code null} literals are not indexed.
+     */
+    LiteralIndex(List<String> literals) {
+        Map<Long, Integer> transitions = new HashMap<>();
+        List<List<Integer>> children = new ArrayList<>();
+        List<int[]> ownOutputs = new ArrayList<>();
+        children.add(new ArrayList<>());
+        ownOutputs.add(NO_OUTPUT);
+        for (int id = 0; id < literals.size(); id++) {
+            String literal = literals.get(id);
+            if (literal == null) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                long key = key(state, literal.charAt(i));
+                Integer next = transitions.get(key);
+                if (next == null) {
+                    next = children.size();
+                    transitions.put(key, next);
+                    children.get(state).add(next);
+                    children.add(new ArrayList<>());
+                    ownOutputs.add(NO_OUTPUT);
+                }
+                state = next;
+            }
+            int[] output = ownOutputs.get(state);
+            output = Arrays.copyOf(output, output.length + 1);
+            output[output.length - 1] = id;
+            ownOutputs.set(state, output);
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(2, transitions.size()) * 2 - 1) << 1;
+        keys = new long[capacity];
+        targets = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, -1);
+        for (Map.Entry<Long, Integer> transition : transitions.entrySet()) {
+            int slot = slot(transition.getKey());
+            while (keys[slot] != -1) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = transition.getKey();
+            targets[slot] = transition.getValue();
+        }
+
+        // breadth first, so the failure state of every state is computed before the state itself
+        int[] chars = new int[children.size()];
+        transitions.forEach((key, state) -> chars[state] = (int) (key & 0xFFFF));
+        failures = new int[children.size()];
+        outputs = new int[children.size()][];
+        outputs[0] = NO_OUTPUT;
+        Deque<Integer> queue = new ArrayDeque<>(children.get(0));
+        for (int child : children.get(0)) {
+            outputs[child] = ownOutputs.get(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.removeFirst();
+            for (int child : children.get(state)) {
+                char c = (char) chars[child];
+                int failure = failures[state];
+                int next;
+                while ((next = transition(failure, c)) < 0 && failure != 0) {
+                    failure = failures[failure];
+                }
+                failures[child] = Math.max(next, 0);
+                outputs[child] = merge(ownOutputs.get(child), outputs[failures[child]]);
+                queue.addLast(child);
+            }
+        }
+    }
+
+    /**
+     * Sets in {@code candidates} the ids of the patterns whose literal occurs in the input.
+     */
+    void collect(CharSequence input, BitSet candidates) {
+        int state = 0;
+        for (int i = 0, length = input.length(); i < length; i++) {
+            char c = input.charAt(i);
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = failures[state];
+            }
+            state = Math.max(next, 0);
+            for (int id : outputs[state]) {
+                candidates.set(id);
+            }
+        }
+    }
+
+    private int transition(int state, char c) {
+        long key = key(state, c);
+        for (int slot = slot(key); keys[slot] != -1; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return targets[slot];
+            }
+        }
+        return -1;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+
+    private static long key(int state, char c) {
+        return (long) state << 16 | c;
+    }
+
+    private static int[] merge(int[] own, int[] inherited) {
+        if (inherited.length == 0) {
+            return own;
+        }
+        if (own.length == 0) {
+            return inherited;
+        }
+        int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+        System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+        return merged;
+    }
+
+    /**
+     * Returns the longest run of literal characters that every match of the regex contains, or {@code null}
+     * if there is none that can be safely extracted.
+     */
+    static String requiredLiteral(String regex, int flags) {
+        if ((flags & UNSUPPORTED_FLAGS) != 0) {
+            return null;
+        }
+        if ((flags & Pattern.LITERAL) != 0) {
+            return regex.isEmpty() ? null : regex;
+        }
+        String longest = "";
+        StringBuilder run = new StringBuilder();
+        int length = regex.length();
+        int i = 0;
+        while (i < length) {
+            char c = regex.charAt(i);
+            int literal = -1;
+            int next;
+            switch (c) {
+                case '\\':
+                    char escaped = regex.charAt(i + 1);
+                    int control = CONTROL_ESCAPES.indexOf(escaped);
+                    if (escaped == 'Q') {
+                        int end = regex.indexOf("\\E", i + 2);
+                        String quoted = end < 0 ? regex.substring(i + 2) : regex.substring(i + 2, end);
+                        next = end < 0 ? length : end + 2;
+                        // a quantifier following the quoted text applies only to its last character
+                        for (int j = 0; j < quoted.length() - 1; j++) {
+                            longest = appendLiteral(quoted.charAt(j), run, longest);
+                        }
+                        if (!quoted.isEmpty()) {
+                            literal = quoted.charAt(quoted.length() - 1);
+                        }
+                    } else if (!Character.isLetterOrDigit(escaped)) {
+                        literal = escaped;
+                        next = i + 2;
+                    } else if (control >= 0) {
+                        literal = CONTROL_CHARS.charAt(control);
+                        next = i + 2;
+                    } else {
+                        next = skipEscape(regex, i);
+                    }
+                    break;
+                case '[':
+                    next = skipClass(regex, i);
+                    break;
+                case '(':
+                    if (isInlineFlags(regex, i)) {
+                        return null;
+                    }
+                    next = skipGroup(regex, i);
+                    break;
+                case '|':
+                    return null;
+                case '.':
+                case '^':
+                case '$':
+                    next = i + 1;
+                    break;
+                default:
+                    literal = c;
+                    next = i + 1;
+            }
+            if (next < 0) {
+                return null;
+            }
+
+            boolean optional = false;
+            boolean repeated = false;
+            int quantifierEnd = next;
+            if (next < length) {
+                char quantifier = regex.charAt(next);
+                if (quantifier == '?' || quantifier == '*') {
+                    optional = true;
+                    quantifierEnd++;
+                } else if (quantifier == '+') {
+                    repeated = true;
+                    quantifierEnd++;
+                } else if (quantifier == '{') {
+                    int close = regex.indexOf('}', next);
+                    int min = 0;
+                    for (int j = next + 1; j < close && Character.isDigit(regex.charAt(j)); j++) {
+                        min = Math.min(min * 10 + regex.charAt(j) - '0', 1000);
+                    }
+                    optional = min == 0;
+                    repeated = true;
+                    quantifierEnd = close + 1;
+                }
+                if (quantifierEnd > next && quantifierEnd < length
+                        && (regex.charAt(quantifierEnd) == '?' || regex.charAt(quantifierEnd) == '+')) {
+                    quantifierEnd++;
+                }
+            }
+
+            if (literal < 0 || optional) {
+                longest = endRun(run, longest);
+            } else {
+                longest = appendLiteral((char) literal, run, longest);
+                if (repeated) {
+                    longest = endRun(run, longest);
+                }
+            }
+            i = quantifierEnd;
+        }
+        longest = endRun(run, longest);
+        return longest.isEmpty() ? null : longest;
+    }
+
+    private static String appendLiteral(char c, StringBuilder run, String longest) {
+        if (Character.isSurrogate(c)) {
+            // a quantifier applies to the whole surrogate pair, so the pair is not kept in the literal
+            return endRun(run, longest);
+        }
+        run.append(c);
+        return longest;
+    }
+
+    private static String endRun(StringBuilder run, String longest) {
+        String result = run.length() > longest.length() ? run.toString() : longest;
+        run.setLength(0);
+        return result;
+    }
+
+    private static boolean isInlineFlags(String regex, int start) {
+        if (start + 1 >= regex.length() || regex.charAt(start + 1) != '?') {
+            return false;
+        }
+        int i = start + 2;
+        while (i < regex.length() && (Character.isLetter(regex.charAt(i)) || regex.charAt(i) == '-')) {
+            i++;
+        }
+        return i > start + 2 && i < regex.length() && regex.charAt(i) == ')';
+    }
+
+    /**
+     * Returns the index following the escape sequence, or -1 for the escapes that prevent extracting a literal.
+     */
+    private static int skipEscape(String regex, int start) {
+        char escaped = regex.charAt(start + 1);
+        int next = start + 2;
+        boolean braced = next < regex.length() && regex.charAt(next) == '{';
+        switch (escaped) {
+            case 'x':
+                return braced ? regex.indexOf('}', next) + 1 : start + 4;
+            case 'u':
+                return start + 6;
+            case 'c':
+                return start + 3;
+            case '0':
+                for (int digits = 0; digits < 3 && next < regex.length()
+                        && regex.charAt(next) >= '0' && regex.charAt(next) <= '7'; digits++) {
+                    next++;
+                }
+                return next;
+            case 'p':
+            case 'P':
+            case 'N':
+                return braced ? regex.indexOf('}', next) + 1 : start + 3;
+            case 'b':
+                return braced ? regex.indexOf('}', next) + 1 : next;
+            case 'k':
+                return -1;
+            default:
+                // back references consume a variable number of digits
+                return Character.isDigit(escaped) ? -1 : next;
+        }
+    }
+
+    private static int skipClass(String regex, int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        int depth = 1;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i = skipEscapedText(regex, i);
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipGroup(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i = skipEscapedText(regex, i);
+                continue;
+            }
+            if (c == '[') {
+                i = skipClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipEscapedText(String regex, int start) {
+        if (start + 1 < regex.length() && regex.charAt(start + 1) == 'Q') {
+            int end = regex.indexOf("\\E", start + 2);
+            return end < 0 ? regex.length() : end + 2;
+        }
+        return start + 2;
+    }
+}
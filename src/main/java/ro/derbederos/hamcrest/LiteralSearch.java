@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates the patterns that are plain literals, optionally surrounded by {@code .*}, without the regex engine.
+ * String inputs are searched with {@link String#indexOf(String, int)}, other char sequences with a naive search
+ * for short needles and with the Boyer-Moore-Horspool algorithm for longer ones.
+ * <p>
+ * Any pattern that is not recognized, uses flags that change the meaning of literal characters or contains
+ * surrogate characters is evaluated by the regex engine, through a {@link ReusableMatcher}, or by
+ * the {@link LinearRegex} engine.
+ * </p>
+ */
+final class LiteralSearch {
+
+    private static final String METACHARACTERS = "\\[](){}.*+?^$|";
+    private static final String ANY = ".*";
+    private static final int UNSUPPORTED_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.CANON_EQ | Pattern.COMMENTS;
+    private static final int HORSPOOL_THRESHOLD = 8;
+
+    private final String needle;
+    private final int[] shifts;
+
+    private LiteralSearch(String needle) {
+        this.needle = needle;
+        if (needle.length() >= HORSPOOL_THRESHOLD) {
+            int last = needle.length() - 1;
+            shifts = new int[256];
+            Arrays.fill(shifts, needle.length());
+            // chars sharing the low byte share the smallest shift, which keeps the search correct
+            for (int i = 0; i < last; i++) {
+                shifts[needle.charAt(i) & 0xFF] = last - i;
+            }
+        } else {
+            shifts = null;
+        }
+    }
+
+    /**
+     * Returns a predicate equivalent to {@code pattern.matcher(input).matches()}.
+     */
+    static Predicate<CharSequence> matchesPredicate(Pattern pattern) {
+        return matchesPredicate(pattern, LinearRegex.isDefaultEngine());
+    }
+
+    /**
+     * Returns a predicate equivalent to {@code pattern.matcher(input).matches()}, evaluated by the linear time
+     * engine when {@code linearTime} is set and the pattern is supported by it.
+     */
+    static Predicate<CharSequence> matchesPredicate(Pattern pattern, boolean linearTime) {
+        String regex = pattern.pattern();
+        int flags = pattern.flags();
+        if ((flags & Pattern.LITERAL) != 0) {
+            String literal = (flags & UNSUPPORTED_FLAGS) == 0 ? regex : null;
+            return literal != null && !hasSurrogates(literal)
+                    ? new LiteralSearch(literal)::equalTo
+                    : regexPredicate(pattern, linearTime, false);
+        }
+        boolean anyPrefix = startsWithAny(regex);
+        boolean anySuffix = endsWithAny(regex, anyPrefix ? ANY.length() : 0);
+        String literal = literal(regex.substring(anyPrefix ? ANY.length() : 0,
+                regex.length() - (anySuffix ? ANY.length() : 0)), flags);
+        if (literal == null) {
+            return regexPredicate(pattern, linearTime, false);
+        }
+        LiteralSearch search = new LiteralSearch(literal);
+        boolean dotAll = (flags & Pattern.DOTALL) != 0;
+        boolean unixLines = (flags & Pattern.UNIX_LINES) != 0;
+        if (anyPrefix && anySuffix) {
+            return input -> search.containedBetweenLines(input, dotAll, unixLines);
+        } else if (anyPrefix) {
+            return input -> search.isSuffixOf(input) &&
+                    (dotAll || !hasLineTerminator(input, 0, input.length() - literal.length(), unixLines));
+        } else if (anySuffix) {
+            return input -> search.isPrefixOf(input) &&
+                    (dotAll || !hasLineTerminator(input, literal.length(), input.length(), unixLines));
+        }
+        return search::equalTo;
+    }
+
+    /**
+     * Returns a predicate equivalent to {@code pattern.matcher(input).find()}.
+     */
+    static Predicate<CharSequence> findPredicate(Pattern pattern) {
+        return findPredicate(pattern, LinearRegex.isDefaultEngine());
+    }
+
+    /**
+     * Returns a predicate equivalent to {@code pattern.matcher(input).find()}, evaluated by the linear time
+     * engine when {@code linearTime} is set and the pattern is supported by it.
+     */
+    static Predicate<CharSequence> findPredicate(Pattern pattern, boolean linearTime) {
+        String regex = pattern.pattern();
+        int flags = pattern.flags();
+        if ((flags & Pattern.LITERAL) != 0) {
+            String literal = (flags & UNSUPPORTED_FLAGS) == 0 ? regex : null;
+            return literal != null && !hasSurrogates(literal)
+                    ? new LiteralSearch(literal)::isContainedIn
+                    : regexPredicate(pattern, linearTime, true);
+        }
+        boolean anchored = regex.startsWith("^") && (flags & Pattern.MULTILINE) == 0;
+        int start = anchored ? 1 : startsWithAny(regex) ? ANY.length() : 0;
+        int end = regex.length() - (endsWithAny(regex, start) ? ANY.length() : 0);
+        String literal = literal(regex.substring(start, end), flags);
+        if (literal == null) {
+            return regexPredicate(pattern, linearTime, true);
+        }
+        LiteralSearch search = new LiteralSearch(literal);
+        return anchored ? search::isPrefixOf : search::isContainedIn;
+    }
+
+    private static Predicate<CharSequence> regexPredicate(Pattern pattern, boolean linearTime, boolean find) {
+        LinearRegex linearRegex = linearTime ? LinearRegex.compile(pattern) : null;
+        if (linearRegex != null) {
+            return find ? linearRegex::find : linearRegex::matches;
+        }
+        ReusableMatcher matcher = new ReusableMatcher(pattern);
+        return find ? matcher::find : matcher::matches;
+    }
+
+    /**
+     * Returns the literal text matched by the given regex, or {@code null} if the regex is not a plain literal.
+     */
+    static String literal(String regex, int flags) {
+        if ((flags & UNSUPPORTED_FLAGS) != 0) {
+            return null;
+        }
+        StringBuilder literal = new StringBuilder(regex.length());
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (++i == regex.length() || Character.isLetterOrDigit(regex.charAt(i))) {
+                    // escapes like \d, \n or \1 have a special meaning
+                    return null;
+                }
+                c = regex.charAt(i);
+            } else if (METACHARACTERS.indexOf(c) >= 0) {
+                return null;
+            }
+            literal.append(c);
+        }
+        return hasSurrogates(literal) ? null : literal.toString();
+    }
+
+    private static boolean startsWithAny(String regex) {
+        return regex.startsWith(ANY);
+    }
+
+    private static boolean endsWithAny(String regex, int start) {
+        if (regex.length() - start < ANY.length() || !regex.endsWith(ANY)) {
+            return false;
+        }
+        int backslashes = 0;
+        for (int i = regex.length() - ANY.length() - 1; i >= start && regex.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 0;
+    }
+
+    private static boolean hasSurrogates(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isSurrogate(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLineTerminator(char c, boolean unixLines) {
+        return c == '\n' || !unixLines && (c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029');
+    }
+
+    private static boolean hasLineTerminator(CharSequence input, int from, int to, boolean unixLines) {
+        for (int i = from; i < to; i++) {
+            if (isLineTerminator(input.charAt(i), unixLines)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean equalTo(CharSequence input) {
+        return input.length() == needle.length() && regionMatches(input, 0);
+    }
+
+    boolean isPrefixOf(CharSequence input) {
+        return input.length() >= needle.length() && regionMatches(input, 0);
+    }
+
+    boolean isSuffixOf(CharSequence input) {
+        return input.length() >= needle.length() && regionMatches(input, input.length() - needle.length());
+    }
+
+    boolean isContainedIn(CharSequence input) {
+        return indexIn(input, 0) >= 0;
+    }
+
+    /**
+     * Equivalent of matching {@code .*literal.*}: there must be an occurrence of the literal that is not preceded
+     * or followed by a line terminator, unless {@code dotAll} is set.
+     */
+    private boolean containedBetweenLines(CharSequence input, boolean dotAll, boolean unixLines) {
+        if (dotAll) {
+            return isContainedIn(input);
+        }
+        int first = 0;
+        while (first < input.length() && !isLineTerminator(input.charAt(first), unixLines)) {
+            first++;
+        }
+        if (first == input.length()) {
+            return isContainedIn(input);
+        }
+        int last = input.length() - 1;
+        while (!isLineTerminator(input.charAt(last), unixLines)) {
+            last--;
+        }
+        int index = indexIn(input, Math.max(0, last + 1 - needle.length()));
+        return index >= 0 && index <= first;
+    }
+
+    private boolean regionMatches(CharSequence input, int offset) {
+        if (input instanceof String) {
+            return ((String) input).startsWith(needle, offset);
+        }
+        for (int i = 0; i < needle.length(); i++) {
+            if (input.charAt(offset + i) != needle.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int indexIn(CharSequence input, int from) {
+        if (input instanceof String) {
+            return ((String) input).indexOf(needle, from);
+        }
+        int last = input.length() - needle.length();
+        if (shifts == null) {
+            for (int i = from; i <= last; i++) {
+                if (regionMatches(input, i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int lastNeedleIndex = needle.length() - 1;
+        for (int i = from; i <= last; ) {
+            char c = input.charAt(i + lastNeedleIndex);
+            if (c == needle.charAt(lastNeedleIndex) && regionMatches(input, i)) {
+                return i;
+            }
+            i += shifts[c & 0xFF];
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.Matcher;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * This class provides a set of matchers that check the ordering of iterables, arrays, streams and primitive arrays.
+ * Every matcher checks the ordering in a single pass, in {@code O(n)} time and without copying the input, and
+ * reports the first pair of items that is out of order, together with their positions.
+ * </p>
+ * <p>
+ * Examples:
+ * </p>
+ * <pre>
+ * assertThat(events, sortedBy(Event::getTimestamp));
+ *
+ * assertThat(array, arraySortedBy(Person::getName, String.CASE_INSENSITIVE_ORDER));
+ *
+ * assertThat(Stream.of(1, 2, 3), streamStrictlyIncreasing());
+ *
+ * assertThat(new int[]{3, 2, 1}, sortedDescendingIntArray());
+ * </pre>
+ *
+ * @since 0.20
+ */
+public final class OrderingMatchers {
+
+    private OrderingMatchers() {
+        throw new java.lang.UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if an iterable is sorted in ascending order by the feature extracted
+     * using the {@code featureExtractor}.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(events, sortedBy(Event::getTimestamp));
+     * </pre>
+     *
+     * @param featureExtractor The function that extracts the sort key of every element of the input iterable.
+     * @param <T>              The type of the elements in the input iterable.
+     * @param <U>              The type of the result of the {@code featureExtractor} function.
+     * @since 0.20
+     */
+    public static <T, U extends Comparable<? super U>> Matcher<Iterable<T>> sortedBy(Function<? super T, ? extends U> featureExtractor) {
+        return sortedBy(featureExtractor, Comparator.naturalOrder());
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if an iterable is sorted by the feature extracted using
+     * the {@code featureExtractor}, in the order imposed by the {@code comparator}.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(people, sortedBy(Person::getName, String.CASE_INSENSITIVE_ORDER));
+     * </pre>
+     *
+     * @param featureExtractor The function that extracts the sort key of every element of the input iterable.
+     * @param comparator       The comparator that imposes the expected order of the sort keys.
+     * @param <T>              The type of the elements in the input iterable.
+     * @param <U>              The type of the result of the {@code featureExtractor} function.
+     * @since 0.20
+     */
+    public static <T, U> Matcher<Iterable<T>> sortedBy(Function<? super T, ? extends U> featureExtractor,
+                                                       Comparator<? super U> comparator) {
+        Order<T> order = Order.sortedBy(featureExtractor, comparator);
+        return iterableMatcher(Iterable.class.getSimpleName() + " of " + order.entityName, order);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of an iterable are in strictly increasing order.
+     * </p>
+     *
+     * @param <T> The type of the elements in the input iterable.
+     * @since 0.20
+     */
+    public static <T extends Comparable<? super T>> Matcher<Iterable<T>> strictlyIncreasing() {
+        return iterableMatcher("Iterable", Order.<T>strictlyIncreasing());
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of an iterable are sorted in descending order.
+     * </p>
+     *
+     * @param <T> The type of the elements in the input iterable.
+     * @since 0.20
+     */
+    public static <T extends Comparable<? super T>> Matcher<Iterable<T>> sortedDescending() {
+        return iterableMatcher("Iterable", Order.<T>sortedDescending());
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if an array is sorted in ascending order by the feature extracted
+     * using the {@code featureExtractor}.
+     * </p>
+     *
+     * @param featureExtractor The function that extracts the sort key of every element of the input array.
+     * @param <T>              The type of the elements in the input array.
+     * @param <U>              The type of the result of the {@code featureExtractor} function.
+     * @since 0.20
+     */
+    public static <T, U extends Comparable<? super U>> Matcher<T[]> arraySortedBy(Function<? super T, ? extends U> featureExtractor) {
+        return arraySortedBy(featureExtractor, Comparator.naturalOrder());
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if an array is sorted by the feature extracted using
+     * the {@code featureExtractor}, in the order imposed by the {@code comparator}.
+     * </p>
+     *
+     * @param featureExtractor The function that extracts the sort key of every element of the input array.
+     * @param comparator       The comparator that imposes the expected order of the sort keys.
+     * @param <T>              The type of the elements in the input array.
+     * @param <U>              The type of the result of the {@code featureExtractor} function.
+     * @since 0.20
+     */
+    public static <T, U> Matcher<T[]> arraySortedBy(Function<? super T, ? extends U> featureExtractor,
+                                                    Comparator<? super U> comparator) {
+        Order<T> order = Order.sortedBy(featureExtractor, comparator);
+        return arrayMatcher(Object[].class.getSimpleName() + " of " + order.entityName, order);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of an array are in strictly increasing order.
+     * </p>
+     *
+     * @param <T> The type of the elements in the input array.
+     * @since 0.20
+     */
+    public static <T extends Comparable<? super T>> Matcher<T[]> arrayStrictlyIncreasing() {
+        return arrayMatcher("array", Order.<T>strictlyIncreasing());
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of an array are sorted in descending order.
+     * </p>
+     *
+     * @param <T> The type of the elements in the input array.
+     * @since 0.20
+     */
+    public static <T extends Comparable<? super T>> Matcher<T[]> arraySortedDescending() {
+        return arrayMatcher("array", Order.<T>sortedDescending());
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if a stream is sorted in ascending order by the feature extracted
+     * using the {@code featureExtractor}.
+     * </p>
+     *
+     * @param featureExtractor The function that extracts the sort key of every element of the input stream.
+     * @param <T>              The type of the elements in the input stream.
+     * @param <U>              The type of the result of the {@code featureExtractor} function.
+     * @since 0.20
+     */
+    public static <T, U extends Comparable<? super U>> Matcher<Stream<T>> streamSortedBy(Function<? super T, ? extends U> featureExtractor) {
+        return streamSortedBy(featureExtractor, Comparator.naturalOrder());
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if a stream is sorted by the feature extracted using
+     * the {@code featureExtractor}, in the order imposed by the {@code comparator}.
+     * </p>
+     *
+     * @param featureExtractor The function that extracts the sort key of every element of the input stream.
+     * @param comparator       The comparator that imposes the expected order of the sort keys.
+     * @param <T>              The type of the elements in the input stream.
+     * @param <U>              The type of the result of the {@code featureExtractor} function.
+     * @since 0.20
+     */
+    public static <T, U> Matcher<Stream<T>> streamSortedBy(Function<? super T, ? extends U> featureExtractor,
+                                                           Comparator<? super U> comparator) {
+        Order<T> order = Order.sortedBy(featureExtractor, comparator);
+        return streamMatcher(Stream.class.getSimpleName() + " of " + order.entityName, order);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of a stream are in strictly increasing order.
+     * </p>
+     *
+     * @param <T> The type of the elements in the input stream.
+     * @since 0.20
+     */
+    public static <T extends Comparable<? super T>> Matcher<Stream<T>> streamStrictlyIncreasing() {
+        return streamMatcher("stream", Order.<T>strictlyIncreasing());
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of a stream are sorted in descending order.
+     * </p>
+     *
+     * @param <T> The type of the elements in the input stream.
+     * @since 0.20
+     */
+    public static <T extends Comparable<? super T>> Matcher<Stream<T>> streamSortedDescending() {
+        return streamMatcher("stream", Order.<T>sortedDescending());
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of an {@code int} array are sorted in ascending order.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<int[]> sortedIntArray() {
+        return intArrayMatcher("sorted in ascending order", (previous, current) -> previous <= current);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of an {@code int} array are in strictly increasing order.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<int[]> strictlyIncreasingIntArray() {
+        return intArrayMatcher("in strictly increasing order", (previous, current) -> previous < current);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of an {@code int} array are sorted in descending order.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<int[]> sortedDescendingIntArray() {
+        return intArrayMatcher("sorted in descending order", (previous, current) -> previous >= current);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of a {@code long} array are sorted in ascending order.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<long[]> sortedLongArray() {
+        return longArrayMatcher("sorted in ascending order", (previous, current) -> previous <= current);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of a {@code long} array are in strictly increasing order.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<long[]> strictlyIncreasingLongArray() {
+        return longArrayMatcher("in strictly increasing order", (previous, current) -> previous < current);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of a {@code long} array are sorted in descending order.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<long[]> sortedDescendingLongArray() {
+        return longArrayMatcher("sorted in descending order", (previous, current) -> previous >= current);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of a {@code double} array are sorted in ascending order.
+     * The items are compared using {@link Double#compare(double, double)}.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<double[]> sortedDoubleArray() {
+        return doubleArrayMatcher("sorted in ascending order",
+                (previous, current) -> Double.compare(previous, current) <= 0);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of a {@code double} array are in strictly increasing order.
+     * The items are compared using {@link Double#compare(double, double)}.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<double[]> strictlyIncreasingDoubleArray() {
+        return doubleArrayMatcher("in strictly increasing order",
+                (previous, current) -> Double.compare(previous, current) < 0);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the items of a {@code double} array are sorted in descending order.
+     * The items are compared using {@link Double#compare(double, double)}.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<double[]> sortedDescendingDoubleArray() {
+        return doubleArrayMatcher("sorted in descending order",
+                (previous, current) -> Double.compare(previous, current) >= 0);
+    }
+
+    private static <T> Matcher<Iterable<T>> iterableMatcher(String entityName, Order<T> order) {
+        return MatcherBuilder.<Iterable<T>>of(Iterable.class)
+                .matches(iterable -> order.check(iterable.iterator()).isMatched())
+                .description(description -> description.appendText(order.describe(entityName)))
+                .describeMismatch((iterable, description) -> order.check(iterable.iterator()).describeMismatch(iterable, description))
+                .build();
+    }
+
+    private static <T> Matcher<T[]> arrayMatcher(String entityName, Order<T> order) {
+        return MatcherBuilder.<T[]>of(Object[].class)
+                .matches(array -> order.check(Arrays.asList(array).iterator()).isMatched())
+                .description(description -> description.appendText(order.describe(entityName)))
+                .describeMismatch((array, description) ->
+                        order.check(Arrays.asList(array).iterator()).describeMismatch(array, description))
+                .build();
+    }
+
+    private static <T> Matcher<Stream<T>> streamMatcher(String entityName, Order<T> order) {
+        return Evaluation.matcher(Stream.class,
+                description -> description.appendText(order.describe(entityName)),
+                stream -> order.check(stream.iterator()));
+    }
+
+    private static Matcher<int[]> intArrayMatcher(String orderName, IntPairPredicate inOrder) {
+        return primitiveArrayMatcher(int[].class, orderName, array -> {
+            for (int i = 1; i < array.length; i++) {
+                if (!inOrder.test(array[i - 1], array[i])) {
+                    return outOfOrder(i, array[i - 1], array[i]);
+                }
+            }
+            return Evaluation.MATCHED;
+        });
+    }
+
+    private static Matcher<long[]> longArrayMatcher(String orderName, LongPairPredicate inOrder) {
+        return primitiveArrayMatcher(long[].class, orderName, array -> {
+            for (int i = 1; i < array.length; i++) {
+                if (!inOrder.test(array[i - 1], array[i])) {
+                    return outOfOrder(i, array[i - 1], array[i]);
+                }
+            }
+            return Evaluation.MATCHED;
+        });
+    }
+
+    private static Matcher<double[]> doubleArrayMatcher(String orderName, DoublePairPredicate inOrder) {
+        return primitiveArrayMatcher(double[].class, orderName, array -> {
+            for (int i = 1; i < array.length; i++) {
+                if (!inOrder.test(array[i - 1], array[i])) {
+                    return outOfOrder(i, array[i - 1], array[i]);
+                }
+            }
+            return Evaluation.MATCHED;
+        });
+    }
+
+    private static <A> Matcher<A> primitiveArrayMatcher(Class<A> arrayType, String orderName,
+                                                        Function<A, Evaluation> check) {
+        String entityName = arrayType.getSimpleName();
+        return MatcherBuilder.<A>of(arrayType)
+                .matches(array -> check.apply(array).isMatched())
+                .description(TypeResolverFeatureMatcherFactory.getArticle(entityName) + " " + entityName + " " + orderName)
+                .describeMismatch((array, description) -> check.apply(array).describeMismatch(array, description))
+                .build();
+    }
+
+    private static Evaluation outOfOrder(long index, Object previous, Object current) {
+        return Evaluation.mismatch(description -> description
+                .appendText("items at indexes " + (index - 1) + " and " + index + " are out of order: ")
+                .appendValue(previous).appendText(" followed by ").appendValue(current));
+    }
+
+    @FunctionalInterface
+    private interface IntPairPredicate {
+        boolean test(int previous, int current);
+    }
+
+    @FunctionalInterface
+    private interface LongPairPredicate {
+        boolean test(long previous, long current);
+    }
+
+    @FunctionalInterface
+    private interface DoublePairPredicate {
+        boolean test(double previous, double current);
+    }
+
+    private static final class Order<T> {
+        private final String entityName;
+        private final String orderName;
+        private final Function<? super T, ?> keyExtractor;
+        private final Comparator<Object> comparator;
+        private final boolean strict;
+
+        @SuppressWarnings("unchecked")
+        private <U> Order(String entityName, String orderName, Function<? super T, ? extends U> keyExtractor,
+                          Comparator<? super U> comparator, boolean strict) {
+            this.entityName = entityName;
+            this.orderName = orderName;
+            this.keyExtractor = keyExtractor;
+            this.comparator = (Comparator<Object>) comparator;
+            this.strict = strict;
+        }
+
+        static <T, U> Order<T> sortedBy(Function<? super T, ? extends U> featureExtractor,
+                                        Comparator<? super U> comparator) {
+            FeatureMetadata<T> featureMetadata = FeatureMetadataResolver.resolve(featureExtractor, Function.class);
+            return new Order<>(featureMetadata.getDeclaringEntityName(),
+                    "sorted by " + featureMetadata.getFeatureName(), featureExtractor, comparator, false);
+        }
+
+        static <T extends Comparable<? super T>> Order<T> strictlyIncreasing() {
+            return new Order<>(null, "in strictly increasing order", Function.<T>identity(),
+                    Comparator.<T>naturalOrder(), true);
+        }
+
+        static <T extends Comparable<? super T>> Order<T> sortedDescending() {
+            return new Order<>(null, "sorted in descending order", Function.<T>identity(),
+                    Comparator.<T>reverseOrder(), false);
+        }
+
+        String describe(String entityName) {
+            return TypeResolverFeatureMatcherFactory.getArticle(entityName) + " " + entityName + " " + orderName;
+        }
+
+        Evaluation check(Iterator<? extends T> iterator) {
+            if (!iterator.hasNext()) {
+                return Evaluation.MATCHED;
+            }
+            Object previous = keyExtractor.apply(iterator.next());
+            for (long index = 1; iterator.hasNext(); index++) {
+                Object current = keyExtractor.apply(iterator.next());
+                int comparison = comparator.compare(previous, current);
+                if (comparison > 0 || (strict && comparison == 0)) {
+                    return outOfOrder(index, previous, current);
+                }
+                previous = current;
+            }
+            return Evaluation.MATCHED;
+        }
+    }
+}
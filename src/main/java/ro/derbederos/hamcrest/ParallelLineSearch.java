@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Finds the first line rejected by a predicate, evaluating the lines on a {@link ForkJoinPool}.
+ * <p>
+ * The evaluation stops as soon as a rejected line is found, but every line before the lowest rejected index found
+ * so far is still evaluated, so the result is always the first rejected line, whatever the scheduling of the tasks.
+ * Indexed inputs are split recursively, while the other inputs are read by the calling thread in batches that
+ * are evaluated by the pool, with a bounded number of batches in flight.
+ */
+final class ParallelLineSearch {
+
+    static final int BATCH_SIZE = 1024;
+
+    private static final Rejection NONE = new Rejection(Long.MAX_VALUE, null);
+
+    private final ForkJoinPool pool;
+    private final Predicate<? super CharSequence> predicate;
+    private final AtomicReference<Rejection> firstRejected = new AtomicReference<>(NONE);
+
+    private ParallelLineSearch(ForkJoinPool pool, Predicate<? super CharSequence> predicate) {
+        this.pool = pool;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Returns the first line rejected by the predicate, or {@code null} if every line is accepted.
+     */
+    static Rejection firstRejected(Iterable<? extends CharSequence> lines, Predicate<? super CharSequence> predicate) {
+        ParallelLineSearch search = new ParallelLineSearch(ForkJoinPool.commonPool(), predicate);
+        if (lines instanceof List && lines instanceof RandomAccess) {
+            List<? extends CharSequence> list = (List<? extends CharSequence>) lines;
+            return search.searchIndexed(list.size(), list::get);
+        }
+        return search.searchSequential(lines.iterator());
+    }
+
+    static Rejection firstRejected(CharSequence[] lines, Predicate<? super CharSequence> predicate) {
+        return new ParallelLineSearch(ForkJoinPool.commonPool(), predicate)
+                .searchIndexed(lines.length, index -> lines[index]);
+    }
+
+    static Rejection firstRejected(Iterator<? extends CharSequence> lines, Predicate<? super CharSequence> predicate) {
+        return new ParallelLineSearch(ForkJoinPool.commonPool(), predicate).searchSequential(lines);
+    }
+
+    private Rejection searchIndexed(int size, IntFunction<? extends CharSequence> lines) {
+        RangeTask task = new RangeTask(lines, 0, 0, size);
+        if (size <= BATCH_SIZE) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        return result();
+    }
+
+    private Rejection searchSequential(Iterator<? extends CharSequence> lines) {
+        int maxInFlight = 2 * pool.getParallelism();
+        Deque<RangeTask> inFlight = new ArrayDeque<>();
+        long base = 0;
+        while (lines.hasNext() && base < firstRejectedIndex()) {
+            CharSequence[] batch = new CharSequence[BATCH_SIZE];
+            int size = 0;
+            while (size < BATCH_SIZE && lines.hasNext()) {
+                batch[size++] = lines.next();
+            }
+            RangeTask task = new RangeTask(index -> batch[index], base, 0, size);
+            if (base == 0 && !lines.hasNext()) {
+                task.compute();
+                break;
+            }
+            inFlight.addLast(task);
+            pool.execute(task);
+            if (inFlight.size() >= maxInFlight) {
+                inFlight.removeFirst().join();
+            }
+            base += size;
+        }
+        while (!inFlight.isEmpty()) {
+            inFlight.removeFirst().join();
+        }
+        return result();
+    }
+
+    private Rejection result() {
+        Rejection rejection = firstRejected.get();
+        return rejection == NONE ? null : rejection;
+    }
+
+    private long firstRejectedIndex() {
+        return firstRejected.get().index;
+    }
+
+    private void reject(long index, CharSequence line) {
+        Rejection rejection = new Rejection(index, line);
+        Rejection current = firstRejected.get();
+        while (index < current.index && !firstRejected.compareAndSet(current, rejection)) {
+            current = firstRejected.get();
+        }
+    }
+
+    static final class Rejection {
+
+        private final long index;
+        private final CharSequence line;
+
+        private Rejection(long index, CharSequence line) {
+            this.index = index;
+            this.line = line;
+        }
+
+        long getIndex() {
+            return index;
+        }
+
+        CharSequence getLine() {
+            return line;
+        }
+    }
+
+    private final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IntFunction<? extends CharSequence> lines;
+        private final long base;
+        private final int from;
+        private final int to;
+
+        RangeTask(IntFunction<? extends CharSequence> lines, long base, int from, int to) {
+            this.lines = lines;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (base + from >= firstRejectedIndex()) {
+                return;
+            }
+            if (to - from > BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(lines, base, from, middle), new RangeTask(lines, base, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                CharSequence line = lines.apply(i);
+                if (line == null || !predicate.test(line)) {
+                    reject(base + i, line);
+                    return;
+                }
+                if ((i & 63) == 0 && base + i >= firstRejectedIndex()) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A set of patterns evaluated in a single pass over the input, by combining them into one alternation where
+ * every pattern is wrapped in its own capturing group. The group that participated in the match identifies
+ * the pattern that matched.
+ * <p>
+ * Finding all the patterns is also done in a single pass: at every match position all the patterns that were not
+ * found yet are checked, and the search continues with an alternation of the patterns that are still missing.
+ * </p>
+ * <p>
+ * Patterns that cannot be safely embedded in an alternation (back references, which depend on the group numbers,
+ * unterminated {@code \Q} quotes, comments mode or the {@link Pattern#LITERAL} flag) are evaluated
+ * one by one instead.
+ * </p>
+ */
+final class PatternAlternation {
+
+    private static final int MAX_MISSING_PATTERNS = 64;
+    private static final Pattern UNSAFE_CONSTRUCT = Pattern.compile("\\\\(?:[1-9]|k<|Q)|\\(\\?[a-zA-Z-]*x");
+
+    private final int flags;
+    private final List<Pattern> patterns;
+    private final List<ReusableMatcher> matchers;
+    private final ReusableMatcher combined;
+    private final int[] groups;
+    private final Map<BitSet, ReusableMatcher> missingPatterns = new ConcurrentHashMap<>();
+
+    private PatternAlternation(int flags, List<Pattern> patterns, Pattern combined, int[] groups) {
+        this.flags = flags;
+        this.patterns = patterns;
+        this.matchers = new ArrayList<>(patterns.size());
+        for (Pattern pattern : patterns) {
+            matchers.add(new ReusableMatcher(pattern));
+        }
+        this.combined = combined == null ? null : new ReusableMatcher(combined);
+        this.groups = groups;
+    }
+
+    /**
+     * Compiles the given regular expressions, using the same {@code flags} for all of them.
+     * The flags are received separately because {@link Pattern#flags()} also reflects the inline flags.
+     */
+    static PatternAlternation of(List<String> regexes, int flags) {
+        List<Pattern> patterns = new ArrayList<>(regexes.size());
+        for (String regex : regexes) {
+            patterns.add(PatternCache.INSTANCE.compile(regex, flags));
+        }
+        if (patterns.size() < 2 || !canCombine(regexes, flags)) {
+            return new PatternAlternation(flags, patterns, null, null);
+        }
+        StringBuilder combinedRegex = new StringBuilder();
+        int[] groups = new int[patterns.size()];
+        int group = 1;
+        for (int i = 0; i < patterns.size(); i++) {
+            if (i > 0) {
+                combinedRegex.append('|');
+            }
+            combinedRegex.append('(').append(regexes.get(i)).append(')');
+            groups[i] = group;
+            group += 1 + patterns.get(i).matcher("").groupCount();
+        }
+        try {
+            Pattern combined = PatternCache.INSTANCE.compile(combinedRegex.toString(), flags);
+            return new PatternAlternation(flags, patterns, combined, groups);
+        } catch (PatternSyntaxException e) {
+            // e.g. the same group name is used by more than one pattern
+            return new PatternAlternation(flags, patterns, null, null);
+        }
+    }
+
+    private static boolean canCombine(List<String> regexes, int flags) {
+        if ((flags & (Pattern.LITERAL | Pattern.COMMENTS)) != 0) {
+            return false;
+        }
+        for (String regex : regexes) {
+            if (UNSAFE_CONSTRUCT.matcher(regex).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    List<Pattern> patterns() {
+        return patterns;
+    }
+
+    boolean isCombined() {
+        return combined != null;
+    }
+
+    /**
+     * Returns the index of a pattern that matches the entire input, or {@code -1} if there is none.
+     */
+    int matchingIndex(CharSequence input) {
+        return indexOf(input, false);
+    }
+
+    /**
+     * Returns the index of a pattern found in the input, or {@code -1} if there is none.
+     */
+    int containedIndex(CharSequence input) {
+        return indexOf(input, true);
+    }
+
+    private int indexOf(CharSequence input, boolean find) {
+        if (combined == null) {
+            for (int i = 0; i < matchers.size(); i++) {
+                ReusableMatcher matcher = matchers.get(i);
+                if (find ? matcher.find(input) : matcher.matches(input)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        Matcher matcher = combined.acquire(input);
+        try {
+            if (!(find ? matcher.find() : matcher.matches())) {
+                return -1;
+            }
+            for (int i = 0; i < groups.length; i++) {
+                if (matcher.start(groups[i]) >= 0) {
+                    return i;
+                }
+            }
+            return -1;
+        } finally {
+            combined.release(matcher);
+        }
+    }
+
+    /**
+     * Returns the indexes of the patterns found in the input. The search stops as soon as all of them are found.
+     */
+    BitSet containedIndexes(CharSequence input) {
+        BitSet found = new BitSet(patterns.size());
+        if (combined == null) {
+            for (int i = 0; i < matchers.size(); i++) {
+                if (matchers.get(i).find(input)) {
+                    found.set(i);
+                }
+            }
+            return found;
+        }
+        ReusableMatcher search = combined;
+        Matcher matcher = search.acquire(input);
+        try {
+            int from = 0;
+            while (matcher.find(from)) {
+                int position = matcher.start();
+                for (int i = found.nextClearBit(0); i < patterns.size(); i = found.nextClearBit(i + 1)) {
+                    if (matchesAt(i, input, position)) {
+                        found.set(i);
+                    }
+                }
+                if (found.cardinality() == patterns.size() || position == input.length()) {
+                    break;
+                }
+                search.release(matcher);
+                search = missingPatterns(found);
+                matcher = search.acquire(input);
+                from = position + 1;
+            }
+            return found;
+        } finally {
+            search.release(matcher);
+        }
+    }
+
+    private boolean matchesAt(int index, CharSequence input, int position) {
+        Matcher matcher = matchers.get(index).acquire(input);
+        try {
+            return matcher.region(position, input.length())
+                    .useTransparentBounds(true)
+                    .useAnchoringBounds(false)
+                    .lookingAt();
+        } finally {
+            matchers.get(index).release(matcher.useTransparentBounds(false).useAnchoringBounds(true));
+        }
+    }
+
+    /**
+     * Returns the alternation of the patterns that were not found yet, memoized per set of found patterns.
+     * Only a few sets are reached in practice, as a set grows only when a new pattern is found.
+     */
+    private ReusableMatcher missingPatterns(BitSet found) {
+        ReusableMatcher matcher = missingPatterns.get(found);
+        if (matcher != null) {
+            return matcher;
+        }
+        StringBuilder regex = new StringBuilder();
+        for (int i = found.nextClearBit(0); i < patterns.size(); i = found.nextClearBit(i + 1)) {
+            if (regex.length() > 0) {
+                regex.append('|');
+            }
+            regex.append("(?:").append(patterns.get(i).pattern()).append(')');
+        }
+        matcher = new ReusableMatcher(PatternCache.INSTANCE.compile(regex.toString(), flags));
+        if (missingPatterns.size() < MAX_MISSING_PATTERNS) {
+            missingPatterns.putIfAbsent((BitSet) found.clone(), matcher);
+        }
+        return matcher;
+    }
+}
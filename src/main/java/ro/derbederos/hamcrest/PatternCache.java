@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded, concurrent, least recently used cache of compiled {@link Pattern}s, keyed by the regular expression
+ * and the compilation flags. Lookups are lock free, only the eviction of the least recently used entries
+ * is serialized.
+ */
+final class PatternCache {
+
+    private static final String CAPACITY_PROPERTY = "lambdamatchers.patternCacheSize";
+    private static final int DEFAULT_CAPACITY = 512;
+
+    static final PatternCache INSTANCE = new PatternCache(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+
+    private final int capacity;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    PatternCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    Pattern compile(String regex, int flags) {
+        if (capacity <= 0) {
+            return Pattern.compile(regex, flags);
+        }
+        Key key = new Key(regex, flags);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+            entry.lastAccess = clock.incrementAndGet();
+            return entry.pattern;
+        }
+        misses.increment();
+        Pattern pattern = Pattern.compile(regex, flags);
+        entries.put(key, new Entry(pattern, clock.incrementAndGet()));
+        if (entries.size() > capacity) {
+            evict();
+        }
+        return pattern;
+    }
+
+    private synchronized void evict() {
+        while (entries.size() > capacity) {
+            Map.Entry<Key, Entry> leastRecentlyUsed = null;
+            for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+                if (leastRecentlyUsed == null || entry.getValue().lastAccess < leastRecentlyUsed.getValue().lastAccess) {
+                    leastRecentlyUsed = entry;
+                }
+            }
+            if (leastRecentlyUsed == null) {
+                return;
+            }
+            entries.remove(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue());
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    double hitRate() {
+        long hitCount = hits.sum();
+        long requestCount = hitCount + misses.sum();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    private static final class Key {
+        private final String regex;
+        private final int flags;
+
+        private Key(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return flags == key.flags && regex.equals(key.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(regex, flags);
+        }
+    }
+
+    private static final class Entry {
+        private final Pattern pattern;
+        private volatile long lastAccess;
+
+        private Entry(Pattern pattern, long lastAccess) {
+            this.pattern = pattern;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * A large set of regular expressions, compiled for checking inputs against all of them, as used by
+ * {@link RegexMatchers#matchesAnyPattern(PatternSet)} and {@link RegexMatchers#containsAnyPattern(PatternSet)}.
+ * </p>
+ * <p>
+ * The longest run of literal characters required by every pattern is extracted and indexed in
+ * an Aho-Corasick automaton. Every input is scanned once by the automaton, and only the patterns whose required
+ * literal occurs in the input are evaluated, so an input is no longer checked against every pattern of the set.
+ * The patterns without an extractable literal, like the ones starting with a top level alternation or compiled
+ * with {@link Pattern#CASE_INSENSITIVE}, are always evaluated.
+ * </p>
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ * <pre>
+ * PatternSet knownMessages = PatternSet.compile(Files.readAllLines(Paths.get("known-messages.txt")));
+ * assertThat(Files.readAllLines(log), everyItem(containsAnyPattern(knownMessages)));
+ * </pre>
+ *
+ * @since 0.20
+ */
+public final class PatternSet {
+
+    private final List<Pattern> patterns;
+    private final List<Predicate<CharSequence>> matchesPredicates;
+    private final List<Predicate<CharSequence>> findPredicates;
+    private final LiteralIndex index;
+    private final BitSet unindexed;
+
+    private PatternSet(List<String> regexes, int flags) {
+        List<Pattern> compiled = new ArrayList<>(regexes.size());
+        List<String> literals = new ArrayList<>(regexes.size());
+        matchesPredicates = new ArrayList<>(regexes.size());
+        findPredicates = new ArrayList<>(regexes.size());
+        unindexed = new BitSet(regexes.size());
+        for (int i = 0; i < regexes.size(); i++) {
+            Pattern pattern = Pattern.compile(regexes.get(i), flags);
+            String literal = LiteralIndex.requiredLiteral(regexes.get(i), flags);
+            compiled.add(pattern);
+            literals.add(literal);
+            matchesPredicates.add(LiteralSearch.matchesPredicate(pattern));
+            findPredicates.add(LiteralSearch.findPredicate(pattern));
+            if (literal == null) {
+                unindexed.set(i);
+            }
+        }
+        patterns = Collections.unmodifiableList(compiled);
+        index = new LiteralIndex(literals);
+    }
+
+    /**
+     * <p>
+     * Compiles the given regular expressions into a pattern set.
+     * </p>
+     *
+     * @param regexes The regular expressions.
+     * @return The compiled pattern set.
+     * @throws java.util.regex.PatternSyntaxException If any of the expressions has an invalid syntax.
+     * @since 0.20
+     */
+    public static PatternSet compile(String... regexes) {
+        return compile(Arrays.asList(regexes), 0);
+    }
+
+    /**
+     * <p>
+     * Compiles the given regular expressions into a pattern set.
+     * </p>
+     *
+     * @param regexes The regular expressions.
+     * @return The compiled pattern set.
+     * @throws java.util.regex.PatternSyntaxException If any of the expressions has an invalid syntax.
+     * @since 0.20
+     */
+    public static PatternSet compile(Collection<String> regexes) {
+        return compile(regexes, 0);
+    }
+
+    /**
+     * <p>
+     * Compiles the given regular expressions into a pattern set, using the same {@code patternFlags} for all of them.
+     * </p>
+     *
+     * @param regexes      The regular expressions.
+     * @param patternFlags A bit mask of the {@link Pattern} flags.
+     * @return The compiled pattern set.
+     * @throws java.util.regex.PatternSyntaxException If any of the expressions has an invalid syntax.
+     * @since 0.20
+     */
+    public static PatternSet compile(Collection<String> regexes, int patternFlags) {
+        return new PatternSet(new ArrayList<>(regexes), patternFlags);
+    }
+
+    /**
+     * <p>
+     * Returns the compiled patterns of the set, in the order they were given.
+     * </p>
+     *
+     * @return An unmodifiable list of the patterns.
+     * @since 0.20
+     */
+    public List<Pattern> patterns() {
+        return patterns;
+    }
+
+    /**
+     * <p>
+     * Returns the number of patterns of the set.
+     * </p>
+     *
+     * @return The number of patterns.
+     * @since 0.20
+     */
+    public int size() {
+        return patterns.size();
+    }
+
+    /**
+     * <p>
+     * Returns the number of patterns that have a required literal, and are evaluated only for the inputs
+     * containing it. The other patterns are evaluated for every input.
+     * </p>
+     *
+     * @return The number of indexed patterns.
+     * @since 0.20
+     */
+    public int indexedPatternCount() {
+        return patterns.size() - unindexed.cardinality();
+    }
+
+    /**
+     * <p>
+     * Returns the position of the first pattern of the set that the whole input matches.
+     * </p>
+     *
+     * @param input The char sequence to be matched.
+     * @return The position of the pattern in the set, or {@code -1} if the input matches none of the patterns.
+     * @since 0.20
+     */
+    public int matchingIndex(CharSequence input) {
+        return firstAccepted(input, matchesPredicates);
+    }
+
+    /**
+     * <p>
+     * Returns the position of the first pattern of the set that the input <b>contains</b>.
+     * </p>
+     *
+     * @param input The char sequence to be searched.
+     * @return The position of the pattern in the set, or {@code -1} if the input contains none of the patterns.
+     * @since 0.20
+     */
+    public int containedIndex(CharSequence input) {
+        return firstAccepted(input, findPredicates);
+    }
+
+    BitSet candidates(CharSequence input) {
+        BitSet candidates = (BitSet) unindexed.clone();
+        index.collect(input, candidates);
+        return candidates;
+    }
+
+    private int firstAccepted(CharSequence input, List<Predicate<CharSequence>> predicates) {
+        BitSet candidates = candidates(input);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (predicates.get(i).test(input)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
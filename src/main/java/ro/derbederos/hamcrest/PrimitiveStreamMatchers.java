@@ -0,0 +1,589 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * <p>
+ * This class provides a set of matchers for Java 8+ primitive streams ({@link IntStream}, {@link LongStream} and
+ * {@link DoubleStream}).
+ * The matchers consume the primitive spliterator of the stream directly, so no element is boxed while matching.
+ * Only the elements that are part of the mismatch description are boxed.
+ * </p>
+ * <p>
+ * Examples:
+ * </p>
+ * <pre>
+ * assertThat(IntStream.of(2, 4, 6), allInts(i -&gt; i % 2 == 0));
+ *
+ * assertThat(LongStream.range(0, 100), longsInRange(0, 99));
+ *
+ * assertThat(DoubleStream.of(1.5, 2.5), doubleStatistics(hasFeature(DoubleSummaryStatistics::getMax, equalTo(2.5))));
+ * </pre>
+ *
+ * @since 0.20
+ */
+public final class PrimitiveStreamMatchers {
+
+    private PrimitiveStreamMatchers() {
+        throw new java.lang.UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every element of an {@link IntStream} matches the given {@code predicate}.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(IntStream.of(2, 4, 6), allInts(i -&gt; i % 2 == 0));
+     * </pre>
+     *
+     * @param predicate The predicate every element has to match.
+     * @since 0.20
+     */
+    public static Matcher<IntStream> allInts(IntPredicate predicate) {
+        String predicateName = predicateName(predicate);
+        return Evaluation.matcher(IntStream.class,
+                description -> description.appendText("an IntStream where every item matches ").appendText(predicateName),
+                stream -> {
+                    Spliterator.OfInt spliterator = stream.spliterator();
+                    IntHolder holder = new IntHolder();
+                    for (long index = 0; spliterator.tryAdvance(holder); index++) {
+                        if (!predicate.test(holder.value)) {
+                            return itemMismatch(holder.value, index, "did not match");
+                        }
+                    }
+                    return Evaluation.MATCHED;
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if any element of an {@link IntStream} matches the given {@code predicate}.
+     * </p>
+     *
+     * @param predicate The predicate at least one element has to match.
+     * @since 0.20
+     */
+    public static Matcher<IntStream> anyInt(IntPredicate predicate) {
+        String predicateName = predicateName(predicate);
+        return Evaluation.matcher(IntStream.class,
+                description -> description.appendText("an IntStream having an item that matches ").appendText(predicateName),
+                stream -> {
+                    Spliterator.OfInt spliterator = stream.spliterator();
+                    IntHolder holder = new IntHolder();
+                    long count = 0;
+                    for (; spliterator.tryAdvance(holder); count++) {
+                        if (predicate.test(holder.value)) {
+                            return Evaluation.MATCHED;
+                        }
+                    }
+                    return noItemMismatch(count);
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every element of an {@link IntStream} is within the given
+     * inclusive range.
+     * </p>
+     *
+     * @param min The lowest allowed value.
+     * @param max The highest allowed value.
+     * @since 0.20
+     */
+    public static Matcher<IntStream> intsInRange(int min, int max) {
+        return Evaluation.matcher(IntStream.class,
+                description -> rangeDescription(description, "an IntStream", min, max),
+                stream -> {
+                    Spliterator.OfInt spliterator = stream.spliterator();
+                    IntHolder holder = new IntHolder();
+                    for (long index = 0; spliterator.tryAdvance(holder); index++) {
+                        if (holder.value < min || holder.value > max) {
+                            return itemMismatch(holder.value, index, "was out of range");
+                        }
+                    }
+                    return Evaluation.MATCHED;
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the elements of an {@link IntStream} are sorted in ascending order.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<IntStream> sortedInts() {
+        return Evaluation.matcher(IntStream.class,
+                description -> description.appendText("an IntStream sorted in ascending order"),
+                stream -> {
+                    Spliterator.OfInt spliterator = stream.spliterator();
+                    IntHolder holder = new IntHolder();
+                    if (!spliterator.tryAdvance(holder)) {
+                        return Evaluation.MATCHED;
+                    }
+                    int previous = holder.value;
+                    for (long index = 1; spliterator.tryAdvance(holder); index++) {
+                        if (holder.value < previous) {
+                            return orderMismatch(holder.value, index, previous);
+                        }
+                        previous = holder.value;
+                    }
+                    return Evaluation.MATCHED;
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks the number of elements of an {@link IntStream}.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(IntStream.range(0, 10), intCount(equalTo(10L)));
+     * </pre>
+     *
+     * @param countMatcher The matcher to be applied on the number of elements.
+     * @since 0.20
+     */
+    public static Matcher<IntStream> intCount(Matcher<? super Long> countMatcher) {
+        return Evaluation.matcher(IntStream.class,
+                description -> countDescription(description, "an IntStream", countMatcher),
+                stream -> countEvaluation(count(stream.spliterator()), countMatcher));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks the {@link IntSummaryStatistics} of an {@link IntStream}.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(IntStream.of(1, 5, 3), intStatistics(hasFeature(IntSummaryStatistics::getMax, equalTo(5))));
+     * </pre>
+     *
+     * @param statisticsMatcher The matcher to be applied on the summary statistics of the elements.
+     * @since 0.20
+     */
+    public static Matcher<IntStream> intStatistics(Matcher<? super IntSummaryStatistics> statisticsMatcher) {
+        return Evaluation.matcher(IntStream.class,
+                description -> statisticsDescription(description, "an IntStream", statisticsMatcher),
+                stream -> {
+                    IntSummaryStatistics statistics = new IntSummaryStatistics();
+                    stream.spliterator().forEachRemaining((IntConsumer) statistics);
+                    return statisticsEvaluation(statistics, statisticsMatcher);
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every element of a {@link LongStream} matches the given {@code predicate}.
+     * </p>
+     *
+     * @param predicate The predicate every element has to match.
+     * @since 0.20
+     */
+    public static Matcher<LongStream> allLongs(LongPredicate predicate) {
+        String predicateName = predicateName(predicate);
+        return Evaluation.matcher(LongStream.class,
+                description -> description.appendText("a LongStream where every item matches ").appendText(predicateName),
+                stream -> {
+                    Spliterator.OfLong spliterator = stream.spliterator();
+                    LongHolder holder = new LongHolder();
+                    for (long index = 0; spliterator.tryAdvance(holder); index++) {
+                        if (!predicate.test(holder.value)) {
+                            return itemMismatch(holder.value, index, "did not match");
+                        }
+                    }
+                    return Evaluation.MATCHED;
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if any element of a {@link LongStream} matches the given {@code predicate}.
+     * </p>
+     *
+     * @param predicate The predicate at least one element has to match.
+     * @since 0.20
+     */
+    public static Matcher<LongStream> anyLong(LongPredicate predicate) {
+        String predicateName = predicateName(predicate);
+        return Evaluation.matcher(LongStream.class,
+                description -> description.appendText("a LongStream having an item that matches ").appendText(predicateName),
+                stream -> {
+                    Spliterator.OfLong spliterator = stream.spliterator();
+                    LongHolder holder = new LongHolder();
+                    long count = 0;
+                    for (; spliterator.tryAdvance(holder); count++) {
+                        if (predicate.test(holder.value)) {
+                            return Evaluation.MATCHED;
+                        }
+                    }
+                    return noItemMismatch(count);
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every element of a {@link LongStream} is within the given
+     * inclusive range.
+     * </p>
+     *
+     * @param min The lowest allowed value.
+     * @param max The highest allowed value.
+     * @since 0.20
+     */
+    public static Matcher<LongStream> longsInRange(long min, long max) {
+        return Evaluation.matcher(LongStream.class,
+                description -> rangeDescription(description, "a LongStream", min, max),
+                stream -> {
+                    Spliterator.OfLong spliterator = stream.spliterator();
+                    LongHolder holder = new LongHolder();
+                    for (long index = 0; spliterator.tryAdvance(holder); index++) {
+                        if (holder.value < min || holder.value > max) {
+                            return itemMismatch(holder.value, index, "was out of range");
+                        }
+                    }
+                    return Evaluation.MATCHED;
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the elements of a {@link LongStream} are sorted in ascending order.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<LongStream> sortedLongs() {
+        return Evaluation.matcher(LongStream.class,
+                description -> description.appendText("a LongStream sorted in ascending order"),
+                stream -> {
+                    Spliterator.OfLong spliterator = stream.spliterator();
+                    LongHolder holder = new LongHolder();
+                    if (!spliterator.tryAdvance(holder)) {
+                        return Evaluation.MATCHED;
+                    }
+                    long previous = holder.value;
+                    for (long index = 1; spliterator.tryAdvance(holder); index++) {
+                        if (holder.value < previous) {
+                            return orderMismatch(holder.value, index, previous);
+                        }
+                        previous = holder.value;
+                    }
+                    return Evaluation.MATCHED;
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks the number of elements of a {@link LongStream}.
+     * </p>
+     *
+     * @param countMatcher The matcher to be applied on the number of elements.
+     * @since 0.20
+     */
+    public static Matcher<LongStream> longCount(Matcher<? super Long> countMatcher) {
+        return Evaluation.matcher(LongStream.class,
+                description -> countDescription(description, "a LongStream", countMatcher),
+                stream -> countEvaluation(count(stream.spliterator()), countMatcher));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks the {@link LongSummaryStatistics} of a {@link LongStream}.
+     * </p>
+     *
+     * @param statisticsMatcher The matcher to be applied on the summary statistics of the elements.
+     * @since 0.20
+     */
+    public static Matcher<LongStream> longStatistics(Matcher<? super LongSummaryStatistics> statisticsMatcher) {
+        return Evaluation.matcher(LongStream.class,
+                description -> statisticsDescription(description, "a LongStream", statisticsMatcher),
+                stream -> {
+                    LongSummaryStatistics statistics = new LongSummaryStatistics();
+                    stream.spliterator().forEachRemaining((LongConsumer) statistics);
+                    return statisticsEvaluation(statistics, statisticsMatcher);
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every element of a {@link DoubleStream} matches the given {@code predicate}.
+     * </p>
+     *
+     * @param predicate The predicate every element has to match.
+     * @since 0.20
+     */
+    public static Matcher<DoubleStream> allDoubles(DoublePredicate predicate) {
+        String predicateName = predicateName(predicate);
+        return Evaluation.matcher(DoubleStream.class,
+                description -> description.appendText("a DoubleStream where every item matches ").appendText(predicateName),
+                stream -> {
+                    Spliterator.OfDouble spliterator = stream.spliterator();
+                    DoubleHolder holder = new DoubleHolder();
+                    for (long index = 0; spliterator.tryAdvance(holder); index++) {
+                        if (!predicate.test(holder.value)) {
+                            return itemMismatch(holder.value, index, "did not match");
+                        }
+                    }
+                    return Evaluation.MATCHED;
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if any element of a {@link DoubleStream} matches the given {@code predicate}.
+     * </p>
+     *
+     * @param predicate The predicate at least one element has to match.
+     * @since 0.20
+     */
+    public static Matcher<DoubleStream> anyDouble(DoublePredicate predicate) {
+        String predicateName = predicateName(predicate);
+        return Evaluation.matcher(DoubleStream.class,
+                description -> description.appendText("a DoubleStream having an item that matches ").appendText(predicateName),
+                stream -> {
+                    Spliterator.OfDouble spliterator = stream.spliterator();
+                    DoubleHolder holder = new DoubleHolder();
+                    long count = 0;
+                    for (; spliterator.tryAdvance(holder); count++) {
+                        if (predicate.test(holder.value)) {
+                            return Evaluation.MATCHED;
+                        }
+                    }
+                    return noItemMismatch(count);
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every element of a {@link DoubleStream} is within the given
+     * inclusive range. {@code NaN} elements are always out of range.
+     * </p>
+     *
+     * @param min The lowest allowed value.
+     * @param max The highest allowed value.
+     * @since 0.20
+     */
+    public static Matcher<DoubleStream> doublesInRange(double min, double max) {
+        return Evaluation.matcher(DoubleStream.class,
+                description -> rangeDescription(description, "a DoubleStream", min, max),
+                stream -> {
+                    Spliterator.OfDouble spliterator = stream.spliterator();
+                    DoubleHolder holder = new DoubleHolder();
+                    for (long index = 0; spliterator.tryAdvance(holder); index++) {
+                        if (!(holder.value >= min && holder.value <= max)) {
+                            return itemMismatch(holder.value, index, "was out of range");
+                        }
+                    }
+                    return Evaluation.MATCHED;
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the elements of a {@link DoubleStream} are sorted in ascending order.
+     * The elements are compared using {@link Double#compare(double, double)}.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static Matcher<DoubleStream> sortedDoubles() {
+        return Evaluation.matcher(DoubleStream.class,
+                description -> description.appendText("a DoubleStream sorted in ascending order"),
+                stream -> {
+                    Spliterator.OfDouble spliterator = stream.spliterator();
+                    DoubleHolder holder = new DoubleHolder();
+                    if (!spliterator.tryAdvance(holder)) {
+                        return Evaluation.MATCHED;
+                    }
+                    double previous = holder.value;
+                    for (long index = 1; spliterator.tryAdvance(holder); index++) {
+                        if (Double.compare(holder.value, previous) < 0) {
+                            return orderMismatch(holder.value, index, previous);
+                        }
+                        previous = holder.value;
+                    }
+                    return Evaluation.MATCHED;
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks the number of elements of a {@link DoubleStream}.
+     * </p>
+     *
+     * @param countMatcher The matcher to be applied on the number of elements.
+     * @since 0.20
+     */
+    public static Matcher<DoubleStream> doubleCount(Matcher<? super Long> countMatcher) {
+        return Evaluation.matcher(DoubleStream.class,
+                description -> countDescription(description, "a DoubleStream", countMatcher),
+                stream -> countEvaluation(count(stream.spliterator()), countMatcher));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks the {@link DoubleSummaryStatistics} of a {@link DoubleStream}.
+     * </p>
+     *
+     * @param statisticsMatcher The matcher to be applied on the summary statistics of the elements.
+     * @since 0.20
+     */
+    public static Matcher<DoubleStream> doubleStatistics(Matcher<? super DoubleSummaryStatistics> statisticsMatcher) {
+        return Evaluation.matcher(DoubleStream.class,
+                description -> statisticsDescription(description, "a DoubleStream", statisticsMatcher),
+                stream -> {
+                    DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+                    stream.spliterator().forEachRemaining((DoubleConsumer) statistics);
+                    return statisticsEvaluation(statistics, statisticsMatcher);
+                });
+    }
+
+    private static String predicateName(Object predicate) {
+        String name = MethodRefResolver.resolveMethodRefName(predicate.getClass());
+        return name != null ? name : "the given predicate";
+    }
+
+    private static void rangeDescription(Description description, String streamType, Object min, Object max) {
+        description.appendText(streamType).appendText(" where every item is between ")
+                .appendValue(min).appendText(" and ").appendValue(max);
+    }
+
+    private static void countDescription(Description description, String streamType, Matcher<?> countMatcher) {
+        description.appendText(streamType).appendText(" with count ").appendDescriptionOf(countMatcher);
+    }
+
+    private static void statisticsDescription(Description description, String streamType, Matcher<?> statisticsMatcher) {
+        description.appendText(streamType).appendText(" with summary statistics ").appendDescriptionOf(statisticsMatcher);
+    }
+
+    private static Evaluation itemMismatch(Object value, long index, String reason) {
+        return Evaluation.mismatch(description -> description.appendText("item ").appendValue(value)
+                .appendText(" at index " + index + " " + reason));
+    }
+
+    private static Evaluation orderMismatch(Object value, long index, Object previous) {
+        return Evaluation.mismatch(description -> description.appendText("item ").appendValue(value)
+                .appendText(" at index " + index + " was less than the previous item ").appendValue(previous));
+    }
+
+    private static Evaluation noItemMismatch(long count) {
+        return Evaluation.mismatch(description -> description.appendText("none of the " + count + " items matched"));
+    }
+
+    private static Evaluation countEvaluation(long count, Matcher<? super Long> countMatcher) {
+        if (countMatcher.matches(count)) {
+            return Evaluation.MATCHED;
+        }
+        return Evaluation.mismatch(description -> {
+            description.appendText("count ");
+            countMatcher.describeMismatch(count, description);
+        });
+    }
+
+    private static <S> Evaluation statisticsEvaluation(S statistics, Matcher<? super S> statisticsMatcher) {
+        if (statisticsMatcher.matches(statistics)) {
+            return Evaluation.MATCHED;
+        }
+        return Evaluation.mismatch(description -> {
+            description.appendText("summary statistics ");
+            statisticsMatcher.describeMismatch(statistics, description);
+        });
+    }
+
+    private static <T, C, S extends Spliterator.OfPrimitive<T, C, S>> long count(S spliterator) {
+        long size = spliterator.getExactSizeIfKnown();
+        if (size >= 0) {
+            return size;
+        }
+        Counter counter = new Counter();
+        @SuppressWarnings("unchecked")
+        C consumer = (C) counter;
+        spliterator.forEachRemaining(consumer);
+        return counter.count;
+    }
+
+    private static final class Counter implements IntConsumer, LongConsumer, DoubleConsumer {
+        long count;
+
+        @Override
+        public void accept(int value) {
+            count++;
+        }
+
+        @Override
+        public void accept(long value) {
+            count++;
+        }
+
+        @Override
+        public void accept(double value) {
+            count++;
+        }
+    }
+
+    private static final class IntHolder implements IntConsumer {
+        int value;
+
+        @Override
+        public void accept(int value) {
+            this.value = value;
+        }
+    }
+
+    private static final class LongHolder implements LongConsumer {
+        long value;
+
+        @Override
+        public void accept(long value) {
+            this.value = value;
+        }
+    }
+
+    private static final class DoubleHolder implements DoubleConsumer {
+        double value;
+
+        @Override
+        public void accept(double value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A limit on the work done by a regex evaluation, enforced by handing the regex engine a {@link CharSequence}
+ * that counts the character accesses and checks the deadline. When the budget is exhausted the evaluation is
+ * aborted with a {@link BudgetExceededException}, since {@code java.util.regex} cannot be interrupted otherwise.
+ */
+final class RegexBudget {
+
+    // the deadline is checked every 1024 character accesses, to keep the cost of System.nanoTime() negligible
+    private static final int DEADLINE_CHECK_MASK = 1023;
+
+    private final long maxCharAccesses;
+    private final long timeoutNanos;
+    private final String limitDescription;
+
+    private RegexBudget(long maxCharAccesses, long timeoutNanos, String limitDescription) {
+        this.maxCharAccesses = maxCharAccesses;
+        this.timeoutNanos = timeoutNanos;
+        this.limitDescription = limitDescription;
+    }
+
+    static RegexBudget ofCharAccesses(long maxCharAccesses) {
+        return new RegexBudget(maxCharAccesses, Long.MAX_VALUE, maxCharAccesses + " character accesses");
+    }
+
+    static RegexBudget ofTime(long timeout, TimeUnit timeUnit) {
+        String timeUnitStr = timeUnit.toString().toLowerCase().replaceAll("s$", "(s)");
+        return new RegexBudget(Long.MAX_VALUE, timeUnit.toNanos(timeout), timeout + " " + timeUnitStr);
+    }
+
+    <T extends CharSequence> Matcher<T> matcher(Matcher<? super CharSequence> subMatcher) {
+        return Evaluation.lastEvaluationMatcher(CharSequence.class,
+                description -> description.appendDescriptionOf(subMatcher).appendText(" within " + limitDescription),
+                item -> evaluate(subMatcher, item));
+    }
+
+    private Evaluation evaluate(Matcher<? super CharSequence> subMatcher, CharSequence item) {
+        try {
+            if (subMatcher.matches(new BudgetCharSequence(item, new Usage()))) {
+                return Evaluation.MATCHED;
+            }
+            // the evaluation completed within the budget, so describing the mismatch is bounded as well
+            return Evaluation.mismatch((input, description) -> subMatcher.describeMismatch(input, description));
+        } catch (BudgetExceededException e) {
+            return Evaluation.mismatch((input, description) -> description
+                    .appendText("regex budget exceeded: more than " + limitDescription + " for ").appendValue(input));
+        }
+    }
+
+    /**
+     * The budget used by one evaluation, shared by all the sub-sequences created by the regex engine.
+     */
+    private final class Usage {
+        private final long deadline = timeoutNanos == Long.MAX_VALUE ? 0 : System.nanoTime() + timeoutNanos;
+        private long charAccesses;
+
+        void charAccessed() {
+            if (++charAccesses > maxCharAccesses) {
+                throw new BudgetExceededException();
+            }
+            if (deadline != 0 && (charAccesses & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadline > 0) {
+                throw new BudgetExceededException();
+            }
+        }
+    }
+
+    private static final class BudgetCharSequence implements CharSequence {
+        private final CharSequence input;
+        private final Usage usage;
+
+        private BudgetCharSequence(CharSequence input, Usage usage) {
+            this.input = input;
+            this.usage = usage;
+        }
+
+        @Override
+        public int length() {
+            return input.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            usage.charAccessed();
+            return input.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BudgetCharSequence(input.subSequence(start, end), usage);
+        }
+
+        @Override
+        public String toString() {
+            return input.toString();
+        }
+    }
+
+    static final class BudgetExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BudgetExceededException() {
+            super("regex budget exceeded", null, false, false);
+        }
+    }
+}
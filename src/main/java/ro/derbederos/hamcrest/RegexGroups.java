@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Matchers on the capture groups of the first match of a pattern. The regex is run once for every input, and the
+ * positions of the match are kept for the mismatch description. Numeric groups are parsed directly from the input,
+ * without creating a string for the group.
+ */
+final class RegexGroups {
+
+    private static final Evaluation NOT_FOUND =
+            Evaluation.mismatch((input, description) -> description.appendText("was ").appendValue(input));
+
+    private RegexGroups() {
+    }
+
+    @FunctionalInterface
+    interface GroupParser<V> {
+        V parse(CharSequence input, int start, int end);
+    }
+
+    static <T extends CharSequence, V> Matcher<T> groupMatcher(Pattern pattern, Object group, String valueType,
+                                                               GroupParser<V> parser, Matcher<? super V> valueMatcher) {
+        if (group instanceof Integer && ((Integer) group < 0 || (Integer) group > pattern.matcher("").groupCount())) {
+            throw new IllegalArgumentException("No group " + group + " in pattern " + pattern.pattern());
+        }
+        if (group instanceof String && !namedGroups(pattern).contains(group)) {
+            throw new IllegalArgumentException("No group \"" + group + "\" in pattern " + pattern.pattern());
+        }
+        String groupName = group instanceof String ? "group \"" + group + "\"" : "group " + group;
+        ReusableMatcher reusableMatcher = new ReusableMatcher(pattern);
+        return Evaluation.lastEvaluationMatcher(CharSequence.class,
+                description -> description.appendText("a string containing pattern ").appendValue(pattern.pattern())
+                        .appendText(" with " + groupName + " ").appendDescriptionOf(valueMatcher),
+                item -> {
+                    java.util.regex.Matcher matcher = reusableMatcher.acquire(item);
+                    try {
+                        if (!matcher.find()) {
+                            return NOT_FOUND;
+                        }
+                        int start = group instanceof String
+                                ? matcher.start((String) group)
+                                : matcher.start((Integer) group);
+                        int end = group instanceof String ? matcher.end((String) group) : matcher.end((Integer) group);
+                        int matchStart = matcher.start();
+                        int matchEnd = matcher.end();
+                        if (start < 0) {
+                            return Evaluation.mismatch((input, description) -> describeMatch(description
+                                    .appendText(groupName + " did not participate"), input, matchStart, matchEnd));
+                        }
+                        V value;
+                        try {
+                            value = parser.parse(item, start, end);
+                        } catch (NumberFormatException e) {
+                            String text = item.subSequence(start, end).toString();
+                            return Evaluation.mismatch((input, description) -> describeMatch(description
+                                    .appendText(groupName + " ").appendValue(text)
+                                    .appendText(" is not " + valueType), input, matchStart, matchEnd));
+                        }
+                        if (valueMatcher.matches(value)) {
+                            return Evaluation.MATCHED;
+                        }
+                        return Evaluation.mismatch((input, description) -> {
+                            description.appendText(groupName + " ");
+                            valueMatcher.describeMismatch(value, description);
+                            describeMatch(description, input, matchStart, matchEnd);
+                        });
+                    } finally {
+                        reusableMatcher.release(matcher);
+                    }
+                });
+    }
+
+    static <T extends CharSequence> Matcher<T> groupsMatcher(Pattern pattern,
+                                                             Matcher<? super List<String>> groupsMatcher) {
+        ReusableMatcher reusableMatcher = new ReusableMatcher(pattern);
+        return Evaluation.lastEvaluationMatcher(CharSequence.class,
+                description -> description.appendText("a string containing pattern ").appendValue(pattern.pattern())
+                        .appendText(" with groups ").appendDescriptionOf(groupsMatcher),
+                item -> {
+                    java.util.regex.Matcher matcher = reusableMatcher.acquire(item);
+                    try {
+                        if (!matcher.find()) {
+                            return NOT_FOUND;
+                        }
+                        List<String> groups = new ArrayList<>(matcher.groupCount());
+                        for (int i = 1; i <= matcher.groupCount(); i++) {
+                            groups.add(matcher.group(i));
+                        }
+                        if (groupsMatcher.matches(groups)) {
+                            return Evaluation.MATCHED;
+                        }
+                        int matchStart = matcher.start();
+                        int matchEnd = matcher.end();
+                        return Evaluation.mismatch((input, description) -> {
+                            description.appendText("groups ");
+                            groupsMatcher.describeMismatch(groups, description);
+                            describeMatch(description, input, matchStart, matchEnd);
+                        });
+                    } finally {
+                        reusableMatcher.release(matcher);
+                    }
+                });
+    }
+
+    /**
+     * Returns the names declared by the {@code (?<name>...)} groups of the pattern, skipping escaped characters,
+     * quoted sections and character classes.
+     */
+    static Set<String> namedGroups(Pattern pattern) {
+        Set<String> names = new HashSet<>();
+        if ((pattern.flags() & Pattern.LITERAL) != 0) {
+            return names;
+        }
+        String regex = pattern.pattern();
+        int classDepth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    i = end < 0 ? regex.length() : end + 1;
+                } else {
+                    i++;
+                }
+            } else if (c == '[') {
+                classDepth++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+            } else if (classDepth == 0 && regex.startsWith("(?<", i)) {
+                int end = i + 3;
+                while (end < regex.length() && Character.isLetterOrDigit(regex.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 3 && end < regex.length() && regex.charAt(end) == '>') {
+                    names.add(regex.substring(i + 3, end));
+                }
+            }
+        }
+        return names;
+    }
+
+    private static void describeMatch(Description description, Object input, int start, int end) {
+        description.appendText(" in the match ")
+                .appendValue(((CharSequence) input).subSequence(start, end).toString())
+                .appendText(" at index " + start);
+    }
+
+    static String parseString(CharSequence input, int start, int end) {
+        return input.subSequence(start, end).toString();
+    }
+
+    static int parseInt(CharSequence input, int start, int end) {
+        long value = parseLong(input, start, end);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException();
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a decimal number with an optional sign, like {@link Long#parseLong(String)}, from a range of the input.
+     */
+    static long parseLong(CharSequence input, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            negative = input.charAt(i) == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException();
+        }
+        // accumulated negatively, so that Long.MIN_VALUE can be parsed
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(input.charAt(i), 10);
+            if (digit < 0 || value < (Long.MIN_VALUE + digit) / 10) {
+                throw new NumberFormatException();
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative && value == Long.MIN_VALUE) {
+            throw new NumberFormatException();
+        }
+        return negative ? value : -value;
+    }
+}
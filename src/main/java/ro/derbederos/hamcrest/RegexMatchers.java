@@ -16,23 +16,49 @@
 
 package ro.derbederos.hamcrest;
 
+import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
-import static org.hamcrest.CoreMatchers.allOf;
-import static org.hamcrest.CoreMatchers.anyOf;
 
 /**
  * <p>
  * Set regular expression matchers for strings.
  * </p>
+ * <p>
+ * The methods receiving the regular expressions as strings share a bounded, least recently used cache of
+ * compiled patterns, so building the same matchers repeatedly does not compile the patterns again.
+ * The capacity of the cache is configurable through the {@code lambdamatchers.patternCacheSize} system property
+ * (512 by default, {@code 0} disables the cache).
+ * </p>
+ * <p>
+ * Patterns that are plain literals, optionally preceded or followed by {@code .*}, are evaluated with a string
+ * search instead of the regex engine.
+ * </p>
  *
  * @since 0.1
  */
 public final class RegexMatchers {
 
+    private static final int BYTES_PREVIEW_LENGTH = 256;
+
     private RegexMatchers() {
         throw new java.lang.UnsupportedOperationException("This is a utility class and cannot be instantiated");
     }
@@ -47,12 +73,7 @@ public final class RegexMatchers {
      * @since 0.1
      */
     public static <T extends CharSequence> Matcher<T> matchesPattern(Pattern pattern) {
-        return MatcherBuilder.<T>of(CharSequence.class)
-                .matches(actual -> pattern.matcher(actual).matches())
-                .describeMismatch((item, description) -> description.appendText("was ").appendValue(item))
-                .description(description -> description.appendText("a string matching pattern ")
-                        .appendValue(pattern.pattern()))
-                .build();
+        return patternMatcher(pattern, LiteralSearch.matchesPredicate(pattern), "a string matching pattern ");
     }
 
     /**
@@ -65,7 +86,7 @@ public final class RegexMatchers {
      * @since 0.1
      */
     public static <T extends CharSequence> Matcher<T> matchesPattern(String regex) {
-        return matchesPattern(Pattern.compile(regex));
+        return matchesPattern(compile(regex, 0));
     }
 
     /**
@@ -83,23 +104,43 @@ public final class RegexMatchers {
      * @since 0.1
      */
     public static <T extends CharSequence> Matcher<T> matchesPattern(String regex, int patternFlags) {
-        return matchesPattern(Pattern.compile(regex, patternFlags));
+        return matchesPattern(compile(regex, patternFlags));
     }
 
     /**
      * <p>
      * Creates a {@link Matcher} that checks if the input char sequence matches any of the given patterns.
      * </p>
+     * <p>
+     * The patterns are combined into a single alternation, so the input is scanned once regardless of
+     * the number of patterns. The mismatch description names the pattern that matched, if any.
+     * </p>
      *
      * @param patterns The regular expressions to match against.
      * @since 0.1
      */
     public static Matcher<CharSequence> matchesAnyPattern(String... patterns) {
-        ArrayList<Matcher<? super CharSequence>> matchers = new ArrayList<>(patterns.length);
-        for (String pattern : patterns) {
-            matchers.add(matchesPattern(pattern));
-        }
-        return anyOf(matchers);
+        return anyPatternMatcher(patterns, false);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence matches any of the patterns of
+     * the given {@code patternSet}.
+     * </p>
+     * <p>
+     * Only the patterns whose required literal occurs in the input are evaluated, as described for
+     * {@link PatternSet}. The mismatch description names the first pattern that matched, if any.
+     * </p>
+     * <pre>
+     * assertThat(line, matchesAnyPattern(PatternSet.compile(knownMessages)));
+     * </pre>
+     *
+     * @param patternSet The compiled set of the patterns to match against.
+     * @since 0.20
+     */
+    public static Matcher<CharSequence> matchesAnyPattern(PatternSet patternSet) {
+        return patternSetMatcher(patternSet, false);
     }
 
     /**
@@ -112,12 +153,7 @@ public final class RegexMatchers {
      * @since 0.1
      */
     public static <T extends CharSequence> Matcher<T> containsPattern(Pattern pattern) {
-        return MatcherBuilder.<T>of(CharSequence.class)
-                .matches(actual -> pattern.matcher(actual).find())
-                .describeMismatch((item, description) -> description.appendText("was ").appendValue(item))
-                .description(description -> description.appendText("a string containing pattern ")
-                        .appendValue(pattern.pattern()))
-                .build();
+        return patternMatcher(pattern, LiteralSearch.findPredicate(pattern), "a string containing pattern ");
     }
 
     /**
@@ -130,7 +166,7 @@ public final class RegexMatchers {
      * @since 0.1
      */
     public static <T extends CharSequence> Matcher<T> containsPattern(String regex) {
-        return containsPattern(Pattern.compile(regex));
+        return containsPattern(compile(regex, 0));
     }
 
     /**
@@ -148,38 +184,741 @@ public final class RegexMatchers {
      * @since 0.1
      */
     public static <T extends CharSequence> Matcher<T> containsPattern(String regex, int patternFlags) {
-        return containsPattern(Pattern.compile(regex, patternFlags));
+        return containsPattern(compile(regex, patternFlags));
     }
 
     /**
      * <p>
      * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> any of the given patterns.
      * </p>
+     * <p>
+     * The patterns are combined into a single alternation, so the input is scanned once regardless of
+     * the number of patterns. The mismatch description names the pattern that was found, if any.
+     * </p>
      *
      * @param patterns The regular expressions to match against.
      * @since 0.1
      */
     public static Matcher<CharSequence> containsAnyPattern(String... patterns) {
-        ArrayList<Matcher<? super CharSequence>> matchers = new ArrayList<>(patterns.length);
-        for (String pattern : patterns) {
-            matchers.add(containsPattern(pattern));
-        }
-        return anyOf(matchers);
+        return anyPatternMatcher(patterns, true);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> any of the patterns of
+     * the given {@code patternSet}.
+     * </p>
+     * <p>
+     * Only the patterns whose required literal occurs in the input are evaluated, as described for
+     * {@link PatternSet}. The mismatch description names the first pattern that was found, if any.
+     * </p>
+     *
+     * @param patternSet The compiled set of the patterns to match against.
+     * @since 0.20
+     */
+    public static Matcher<CharSequence> containsAnyPattern(PatternSet patternSet) {
+        return patternSetMatcher(patternSet, true);
     }
 
     /**
      * <p>
      * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> all of the given patterns.
      * </p>
+     * <p>
+     * The input is scanned once, and the scan stops as soon as all the patterns are found.
+     * The mismatch description lists the patterns that were not found.
+     * </p>
      *
      * @param patterns The regular expressions to match against.
      * @since 0.1
      */
     public static Matcher<CharSequence> containsAllPatterns(String... patterns) {
-        ArrayList<Matcher<? super CharSequence>> matchers = new ArrayList<>(patterns.length);
-        for (String pattern : patterns) {
-            matchers.add(containsPattern(pattern));
+        PatternAlternation alternation = PatternAlternation.of(Arrays.asList(patterns), 0);
+        List<Pattern> compiledPatterns = alternation.patterns();
+        return Evaluation.lastEvaluationMatcher(CharSequence.class,
+                description -> describePatterns(description, compiledPatterns, "a string containing pattern ", " and "),
+                item -> {
+                    BitSet found = alternation.containedIndexes(item);
+                    if (found.cardinality() == compiledPatterns.size()) {
+                        return Evaluation.MATCHED;
+                    }
+                    List<String> missing = new ArrayList<>();
+                    for (int i = found.nextClearBit(0); i < compiledPatterns.size(); i = found.nextClearBit(i + 1)) {
+                        missing.add(compiledPatterns.get(i).pattern());
+                    }
+                    return Evaluation.mismatch((input, description) -> description.appendText("was ").appendValue(input)
+                            .appendText(", which did not contain " + missing.size() + " of the "
+                                    + compiledPatterns.size() + " patterns: ")
+                            .appendValueList("", ", ", "", missing));
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence matches the given regular expression
+     * {@code pattern}, in a time proportional to the length of the input.
+     * </p>
+     * <p>
+     * The pattern is evaluated by an automaton based engine that never backtracks, which is safe for untrusted
+     * inputs. It supports the regular subset of the {@link Pattern} syntax, without back references,
+     * look-arounds, possessive quantifiers, word boundaries, Unicode properties or case insensitive matching.
+     * Any other pattern is evaluated by {@link Pattern}. The linear time engine can also be selected for all
+     * the matchers of this class, by setting the {@code lambdamatchers.regexEngine} system property to
+     * {@code linear}.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @param <T>     The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> matchesPatternInLinearTime(Pattern pattern) {
+        return patternMatcher(pattern, LiteralSearch.matchesPredicate(pattern, true), "a string matching pattern ");
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> the given regular expression
+     * {@code pattern}, in a time proportional to the length of the input.
+     * </p>
+     * <p>
+     * The pattern is evaluated by an automaton based engine that never backtracks, as described for
+     * {@link #matchesPatternInLinearTime(Pattern)}. Unsupported patterns are evaluated by {@link Pattern}.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @param <T>     The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> containsPatternInLinearTime(Pattern pattern) {
+        return patternMatcher(pattern, LiteralSearch.findPredicate(pattern, true), "a string containing pattern ");
+    }
+
+    private static <T extends CharSequence> Matcher<T> patternMatcher(Pattern pattern,
+                                                                      Predicate<CharSequence> predicate,
+                                                                      String patternDescription) {
+        return MatcherBuilder.<T>of(CharSequence.class)
+                .matches(predicate::test)
+                .describeMismatch((item, description) -> description.appendText("was ").appendValue(item))
+                .description(description -> description.appendText(patternDescription)
+                        .appendValue(pattern.pattern()))
+                .build();
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> the given regular expression
+     * {@code pattern}, and the value of the given capture group of the first match
+     * satisfies the given {@code matcher}.
+     * </p>
+     * <p>
+     * The regex is run once, and the mismatch description shows the match the group belongs to.
+     * </p>
+     * <pre>
+     * assertThat("id=42", hasGroup(Pattern.compile("id=(\\d+)"), 1, equalTo("42")));
+     * </pre>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @param group   The index of the capture group.
+     * @param matcher The {@link Matcher} for the value of the group.
+     * @param <T>     The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> hasGroup(Pattern pattern, int group,
+                                                               Matcher<? super String> matcher) {
+        return RegexGroups.groupMatcher(pattern, group, "a string", RegexGroups::parseString, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> the given regular expression
+     * {@code pattern}, and the value of the named capture group of the first match
+     * satisfies the given {@code matcher}.
+     * </p>
+     * <p>
+     * The regex is run once, and the mismatch description shows the match the group belongs to.
+     * </p>
+     *
+     * @param pattern   The {@link Pattern} object to match against.
+     * @param groupName The name of the capture group.
+     * @param matcher   The {@link Matcher} for the value of the group.
+     * @param <T>       The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> hasGroup(Pattern pattern, String groupName,
+                                                               Matcher<? super String> matcher) {
+        return RegexGroups.groupMatcher(pattern, groupName, "a string", RegexGroups::parseString, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> the given regular expression
+     * {@code pattern}, and the decimal int value of the given capture group of the first match
+     * satisfies the given {@code matcher}.
+     * </p>
+     * <p>
+     * The regex is run once, and the mismatch description shows the match the group belongs to. The value is
+     * parsed directly from the input, without creating a string for the group.
+     * </p>
+     * <pre>
+     * assertThat("id=42", hasIntGroup(Pattern.compile("id=(\\d+)"), 1, greaterThan(40)));
+     * </pre>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @param group   The index of the capture group.
+     * @param matcher The {@link Matcher} for the decimal int value of the group.
+     * @param <T>     The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> hasIntGroup(Pattern pattern, int group,
+                                                                  Matcher<? super Integer> matcher) {
+        return RegexGroups.groupMatcher(pattern, group, "an int", RegexGroups::parseInt, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> the given regular expression
+     * {@code pattern}, and the decimal int value of the named capture group of the first match
+     * satisfies the given {@code matcher}.
+     * </p>
+     * <p>
+     * The regex is run once, and the mismatch description shows the match the group belongs to. The value is
+     * parsed directly from the input, without creating a string for the group.
+     * </p>
+     *
+     * @param pattern   The {@link Pattern} object to match against.
+     * @param groupName The name of the capture group.
+     * @param matcher   The {@link Matcher} for the decimal int value of the group.
+     * @param <T>       The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> hasIntGroup(Pattern pattern, String groupName,
+                                                                  Matcher<? super Integer> matcher) {
+        return RegexGroups.groupMatcher(pattern, groupName, "an int", RegexGroups::parseInt, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> the given regular expression
+     * {@code pattern}, and the decimal long value of the given capture group of the first match
+     * satisfies the given {@code matcher}.
+     * </p>
+     * <p>
+     * The regex is run once, and the mismatch description shows the match the group belongs to. The value is
+     * parsed directly from the input, without creating a string for the group.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @param group   The index of the capture group.
+     * @param matcher The {@link Matcher} for the decimal long value of the group.
+     * @param <T>     The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> hasLongGroup(Pattern pattern, int group,
+                                                                   Matcher<? super Long> matcher) {
+        return RegexGroups.groupMatcher(pattern, group, "a long", RegexGroups::parseLong, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> the given regular expression
+     * {@code pattern}, and the decimal long value of the named capture group of the first match
+     * satisfies the given {@code matcher}.
+     * </p>
+     * <p>
+     * The regex is run once, and the mismatch description shows the match the group belongs to. The value is
+     * parsed directly from the input, without creating a string for the group.
+     * </p>
+     *
+     * @param pattern   The {@link Pattern} object to match against.
+     * @param groupName The name of the capture group.
+     * @param matcher   The {@link Matcher} for the decimal long value of the group.
+     * @param <T>       The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> hasLongGroup(Pattern pattern, String groupName,
+                                                                   Matcher<? super Long> matcher) {
+        return RegexGroups.groupMatcher(pattern, groupName, "a long", RegexGroups::parseLong, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input char sequence <b>contains</b> the given regular expression
+     * {@code pattern}, and the list of the values of all the capture groups of the first match satisfies the given
+     * {@code matcher}. The groups that did not participate in the match have {@code null} values.
+     * </p>
+     * <pre>
+     * assertThat("user=john id=42", hasGroups(Pattern.compile("user=(\\w+) id=(\\d+)"), contains("john", "42")));
+     * </pre>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @param matcher The {@link Matcher} for the values of the groups.
+     * @param <T>     The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> hasGroups(Pattern pattern,
+                                                                Matcher<? super List<String>> matcher) {
+        return RegexGroups.groupsMatcher(pattern, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every line of the input iterable matches the given regular expression
+     * {@code pattern}.
+     * </p>
+     * <p>
+     * The lines are evaluated in parallel on the common {@link java.util.concurrent.ForkJoinPool}, every worker
+     * thread reusing its own {@link java.util.regex.Matcher}. Random access lists are split between the workers,
+     * while the other iterables are read by the calling thread in batches. The evaluation stops at the first
+     * failing line, and the mismatch description always reports the first failing line in iteration order,
+     * with its 1-based line number.
+     * </p>
+     * <pre>
+     * assertThat(Files.readAllLines(log), linesMatchPattern(Pattern.compile("\\d{4}-\\d{2}-\\d{2} .*")));
+     * </pre>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<Iterable<? extends CharSequence>> linesMatchPattern(Pattern pattern) {
+        return linesMatcher(Iterable.class, "an iterable", "matching", pattern,
+                LiteralSearch.matchesPredicate(pattern), ParallelLineSearch::firstRejected);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every line of the input iterable <b>contains</b> the given regular
+     * expression {@code pattern}.
+     * </p>
+     * <p>
+     * The lines are evaluated in parallel, as described for {@link #linesMatchPattern(Pattern)}.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<Iterable<? extends CharSequence>> linesContainPattern(Pattern pattern) {
+        return linesMatcher(Iterable.class, "an iterable", "containing", pattern,
+                LiteralSearch.findPredicate(pattern), ParallelLineSearch::firstRejected);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every line of the input array matches the given regular expression
+     * {@code pattern}.
+     * </p>
+     * <p>
+     * The lines are evaluated in parallel, as described for {@link #linesMatchPattern(Pattern)}.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<CharSequence[]> arrayLinesMatchPattern(Pattern pattern) {
+        return linesMatcher(CharSequence[].class, "an array", "matching", pattern,
+                LiteralSearch.matchesPredicate(pattern), ParallelLineSearch::firstRejected);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every line of the input array <b>contains</b> the given regular
+     * expression {@code pattern}.
+     * </p>
+     * <p>
+     * The lines are evaluated in parallel, as described for {@link #linesMatchPattern(Pattern)}.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<CharSequence[]> arrayLinesContainPattern(Pattern pattern) {
+        return linesMatcher(CharSequence[].class, "an array", "containing", pattern,
+                LiteralSearch.findPredicate(pattern), ParallelLineSearch::firstRejected);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every line of the input stream matches the given regular expression
+     * {@code pattern}.
+     * </p>
+     * <p>
+     * The stream is read by the calling thread in batches, that are evaluated in parallel as described for
+     * {@link #linesMatchPattern(Pattern)}, and it is not consumed past the batches needed to find the first
+     * failing line.
+     * </p>
+     * <pre>
+     * assertThat(Files.lines(log), streamLinesMatchPattern(Pattern.compile("\\d{4}-\\d{2}-\\d{2} .*")));
+     * </pre>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<Stream<? extends CharSequence>> streamLinesMatchPattern(Pattern pattern) {
+        return streamLinesMatcher("matching", pattern, LiteralSearch.matchesPredicate(pattern));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every line of the input stream <b>contains</b> the given regular
+     * expression {@code pattern}.
+     * </p>
+     * <p>
+     * The stream is evaluated in parallel, as described for {@link #streamLinesMatchPattern(Pattern)}.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<Stream<? extends CharSequence>> streamLinesContainPattern(Pattern pattern) {
+        return streamLinesMatcher("containing", pattern, LiteralSearch.findPredicate(pattern));
+    }
+
+    private static <T> Matcher<T> linesMatcher(Class<? super T> inputType, String inputName, String relation,
+                                               Pattern pattern, Predicate<CharSequence> predicate,
+                                               BiFunction<T, Predicate<CharSequence>,
+                                                       ParallelLineSearch.Rejection> search) {
+        return Evaluation.lastEvaluationMatcher(inputType,
+                description -> describeLines(description, inputName, relation, pattern),
+                lines -> linesEvaluation(search.apply(lines, predicate)));
+    }
+
+    private static Matcher<Stream<? extends CharSequence>> streamLinesMatcher(String relation, Pattern pattern,
+                                                                              Predicate<CharSequence> predicate) {
+        return Evaluation.matcher(Stream.class,
+                description -> describeLines(description, "a stream", relation, pattern),
+                stream -> linesEvaluation(ParallelLineSearch.firstRejected(stream.iterator(), predicate)));
+    }
+
+    private static void describeLines(Description description, String inputName, String relation, Pattern pattern) {
+        description.appendText(inputName + " where every line is a string " + relation + " pattern ")
+                .appendValue(pattern.pattern());
+    }
+
+    private static Evaluation linesEvaluation(ParallelLineSearch.Rejection rejection) {
+        if (rejection == null) {
+            return Evaluation.MATCHED;
+        }
+        return Evaluation.mismatch(description -> description.appendText("line " + (rejection.getIndex() + 1) + " was ")
+                .appendValue(rejection.getLine()));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the content of the input file, decoded as UTF-8,
+     * <b>contains</b> the given regular expression {@code pattern}.
+     * </p>
+     * <p>
+     * Pure ASCII files are memory-mapped and searched in place, other files are searched through a sliding window,
+     * assuming that a match, together with its look-ahead, is at most 65536 characters long. The file is never
+     * held in memory as a string, and its content is not part of the mismatch description.
+     * </p>
+     * <pre>
+     * assertThat(Paths.get("application.log"), fileContainsPattern(Pattern.compile("Started in \\d+ ms")));
+     * </pre>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<Path> fileContainsPattern(Pattern pattern) {
+        return fileContainsPattern(pattern, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the content of the input file, decoded with the given
+     * {@code charset}, <b>contains</b> the given regular expression {@code pattern}.
+     * </p>
+     * <p>
+     * ISO-8859-1 files, and pure ASCII files in US-ASCII or UTF-8, are memory-mapped and searched in place,
+     * other files are searched through a sliding window, assuming that a match, together with its look-ahead,
+     * is at most 65536 characters long.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @param charset The {@link Charset} of the file.
+     * @since 0.20
+     */
+    public static Matcher<Path> fileContainsPattern(Pattern pattern, Charset charset) {
+        Predicate<CharSequence> find = LiteralSearch.findPredicate(pattern);
+        return Evaluation.lastEvaluationMatcher(Path.class,
+                description -> description.appendText("a file containing pattern ").appendValue(pattern.pattern()),
+                path -> LargeInputSearch.searchFile(pattern, find, path, charset));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the characters of the input reader <b>contain</b> the given
+     * regular expression {@code pattern}.
+     * </p>
+     * <p>
+     * The reader is consumed until the first match, through a sliding window, assuming that a match,
+     * together with its look-ahead, is at most 65536 characters long. The reader is not closed.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<Reader> readerContainsPattern(Pattern pattern) {
+        return Evaluation.matcher(Reader.class,
+                description -> description.appendText("a reader containing pattern ").appendValue(pattern.pattern()),
+                reader -> LargeInputSearch.searchReader(pattern, reader));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the remaining characters of the input buffer <b>contain</b>
+     * the given regular expression {@code pattern}.
+     * </p>
+     * <p>
+     * The buffer is searched in place, without changing its position, and its content is not part of
+     * the mismatch description.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<CharBuffer> bufferContainsPattern(Pattern pattern) {
+        Predicate<CharSequence> find = LiteralSearch.findPredicate(pattern);
+        return MatcherBuilder.<CharBuffer>of(CharBuffer.class)
+                .matches(find::test)
+                .describeMismatch((buffer, description) ->
+                        LargeInputSearch.notFound("buffer", false, buffer.remaining()).describeMismatch(buffer, description))
+                .description(description -> description.appendText("a buffer containing pattern ")
+                        .appendValue(pattern.pattern()))
+                .build();
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input byte array matches the given regular expression {@code pattern}.
+     * </p>
+     * <p>
+     * The bytes are matched in place through an ASCII view, without decoding or copying them. Only payloads with
+     * non-ASCII bytes are decoded as UTF-8.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<byte[]> bytesMatchPattern(Pattern pattern) {
+        return bytesMatcher(byte[].class, ByteBuffer::wrap, "a byte array", "matching", pattern,
+                LiteralSearch.matchesPredicate(pattern));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the input byte array <b>contains</b> the given regular
+     * expression {@code pattern}.
+     * </p>
+     * <p>
+     * The bytes are matched in place through an ASCII view, without decoding or copying them. Only payloads with
+     * non-ASCII bytes are decoded as UTF-8.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<byte[]> bytesContainPattern(Pattern pattern) {
+        return bytesMatcher(byte[].class, ByteBuffer::wrap, "a byte array", "containing", pattern,
+                LiteralSearch.findPredicate(pattern));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the remaining bytes of the input buffer match the given
+     * regular expression {@code pattern}.
+     * </p>
+     * <p>
+     * The bytes are matched in place through an ASCII view, without decoding or copying them. Only payloads with
+     * non-ASCII bytes are decoded as UTF-8. Direct buffers are supported, and the position
+     * of the buffer is not changed.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<ByteBuffer> byteBufferMatchesPattern(Pattern pattern) {
+        return bytesMatcher(ByteBuffer.class, Function.identity(), "a byte buffer", "matching", pattern,
+                LiteralSearch.matchesPredicate(pattern));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the remaining bytes of the input buffer <b>contain</b> the given
+     * regular expression {@code pattern}.
+     * </p>
+     * <p>
+     * The bytes are matched in place through an ASCII view, without decoding or copying them. Only payloads with
+     * non-ASCII bytes are decoded as UTF-8. Direct buffers are supported, and the position
+     * of the buffer is not changed.
+     * </p>
+     *
+     * @param pattern The {@link Pattern} object to match against.
+     * @since 0.20
+     */
+    public static Matcher<ByteBuffer> byteBufferContainsPattern(Pattern pattern) {
+        return bytesMatcher(ByteBuffer.class, Function.identity(), "a byte buffer", "containing", pattern,
+                LiteralSearch.findPredicate(pattern));
+    }
+
+    private static <T> Matcher<T> bytesMatcher(Class<T> inputType, Function<T, ByteBuffer> toByteBuffer,
+                                               String inputName, String relation, Pattern pattern,
+                                               Predicate<CharSequence> predicate) {
+        return MatcherBuilder.<T>of(inputType)
+                .matches(item -> predicate.test(AsciiCharSequence.asciiViewOrUtf8(toByteBuffer.apply(item))))
+                .describeMismatch((item, description) -> {
+                    ByteBuffer bytes = toByteBuffer.apply(item);
+                    CharSequence text = AsciiCharSequence.asciiViewOrUtf8(bytes);
+                    String preview = text.length() > BYTES_PREVIEW_LENGTH
+                            ? text.subSequence(0, BYTES_PREVIEW_LENGTH) + "..."
+                            : text.toString();
+                    description.appendText("was " + inputName.substring(2) + " of " + bytes.remaining() + " bytes ")
+                            .appendValue(preview);
+                })
+                .description(description -> description.appendText(inputName + " " + relation + " pattern ")
+                        .appendValue(pattern.pattern()))
+                .build();
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that evaluates the given regex {@code matcher} with a limited number of character
+     * accesses, so that a pattern with catastrophic backtracking fails fast instead of hanging the test.
+     * </p>
+     * <p>
+     * The regex engine receives a view of the input that counts the characters it reads, and the evaluation is
+     * aborted with a "regex budget exceeded" mismatch when the limit is reached.
+     * </p>
+     * <pre>
+     * assertThat(input, withCharAccessBudget(1_000_000, matchesPattern("(a+)+b")));
+     * </pre>
+     *
+     * @param maxCharAccesses The maximum number of characters the regex engine may read for every input.
+     * @param matcher         The regex matcher to be evaluated, like {@link #matchesPattern(Pattern)}.
+     * @param <T>             The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> withCharAccessBudget(long maxCharAccesses,
+                                                                           Matcher<? super CharSequence> matcher) {
+        return RegexBudget.ofCharAccesses(maxCharAccesses).matcher(matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that evaluates the given regex {@code matcher} with a deadline, so that a pattern
+     * with catastrophic backtracking fails fast instead of hanging the test.
+     * </p>
+     * <p>
+     * The regex engine receives a view of the input that checks the deadline while the characters are read,
+     * and the evaluation is aborted with a "regex budget exceeded" mismatch when the deadline has passed.
+     * </p>
+     * <pre>
+     * assertThat(input, withTimeBudget(100, TimeUnit.MILLISECONDS, matchesPattern("(a+)+b")));
+     * </pre>
+     *
+     * @param timeout  The maximum duration of the evaluation of every input.
+     * @param timeUnit The time unit of the {@code timeout}.
+     * @param matcher  The regex matcher to be evaluated, like {@link #matchesPattern(Pattern)}.
+     * @param <T>      The type of the char sequence implementing {@link CharSequence}.
+     * @since 0.20
+     */
+    public static <T extends CharSequence> Matcher<T> withTimeBudget(long timeout, TimeUnit timeUnit,
+                                                                     Matcher<? super CharSequence> matcher) {
+        return RegexBudget.ofTime(timeout, timeUnit).matcher(matcher);
+    }
+
+    /**
+     * <p>
+     * Returns the number of compiled patterns held by the pattern cache used by the methods receiving
+     * the regular expressions as strings.
+     * </p>
+     *
+     * @return The number of cached patterns.
+     * @since 0.20
+     */
+    public static int patternCacheSize() {
+        return PatternCache.INSTANCE.size();
+    }
+
+    /**
+     * <p>
+     * Returns the ratio of the pattern cache lookups that found an already compiled pattern, since the start or
+     * since the last {@link #clearPatternCache()} call. It is {@code 1.0} if there was no lookup.
+     * </p>
+     *
+     * @return The hit rate of the pattern cache, between {@code 0.0} and {@code 1.0}.
+     * @since 0.20
+     */
+    public static double patternCacheHitRate() {
+        return PatternCache.INSTANCE.hitRate();
+    }
+
+    /**
+     * <p>
+     * Removes all the compiled patterns from the pattern cache and resets its statistics.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public static void clearPatternCache() {
+        PatternCache.INSTANCE.clear();
+    }
+
+    private static Matcher<CharSequence> anyPatternMatcher(String[] regexes, boolean find) {
+        PatternAlternation alternation = PatternAlternation.of(Arrays.asList(regexes), 0);
+        List<Pattern> patterns = alternation.patterns();
+        ToIntFunction<CharSequence> indexFunction = find ? alternation::containedIndex : alternation::matchingIndex;
+        String patternDescription = find ? "a string containing pattern " : "a string matching pattern ";
+        String verb = find ? "contained" : "matched";
+        return MatcherBuilder.<CharSequence>of(CharSequence.class)
+                .matches(actual -> indexFunction.applyAsInt(actual) >= 0)
+                .describeMismatch((item, description) -> {
+                    description.appendText("was ").appendValue(item);
+                    int index = indexFunction.applyAsInt(item);
+                    if (index >= 0) {
+                        description.appendText(", which " + verb + " pattern ")
+                                .appendValue(patterns.get(index).pattern());
+                    } else {
+                        description.appendText(", which " + verb + " none of the " + patterns.size() + " patterns");
+                    }
+                })
+                .description(description -> describePatterns(description, patterns, patternDescription, " or "))
+                .build();
+    }
+
+    private static Matcher<CharSequence> patternSetMatcher(PatternSet patternSet, boolean find) {
+        ToIntFunction<CharSequence> indexFunction = find ? patternSet::containedIndex : patternSet::matchingIndex;
+        String relation = find ? "containing" : "matching";
+        String verb = find ? "contained" : "matched";
+        return MatcherBuilder.<CharSequence>of(CharSequence.class)
+                .matches(actual -> indexFunction.applyAsInt(actual) >= 0)
+                .describeMismatch((item, description) -> {
+                    description.appendText("was ").appendValue(item);
+                    int index = indexFunction.applyAsInt(item);
+                    if (index >= 0) {
+                        description.appendText(", which " + verb + " pattern ")
+                                .appendValue(patternSet.patterns().get(index).pattern());
+                    } else {
+                        description.appendText(", which " + verb + " none of the " + patternSet.size() + " patterns");
+                    }
+                })
+                .description(description -> description.appendText("a string " + relation + " any of the "
+                        + patternSet.size() + " patterns of a pattern set"))
+                .build();
+    }
+
+    private static void describePatterns(Description description, List<Pattern> patterns,
+                                         String patternDescription, String separator) {
+        description.appendText("(");
+        for (int i = 0; i < patterns.size(); i++) {
+            if (i > 0) {
+                description.appendText(separator);
+            }
+            description.appendText(patternDescription).appendValue(patterns.get(i).pattern());
         }
-        return allOf(matchers);
+        description.appendText(")");
+    }
+
+    private static Pattern compile(String regex, int patternFlags) {
+        return PatternCache.INSTANCE.compile(regex, patternFlags);
     }
 }
@@ -19,9 +19,15 @@ package ro.derbederos.hamcrest;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 final class RetryMatcher<T> extends BaseMatcher<T> {
 
@@ -29,36 +35,105 @@ final class RetryMatcher<T> extends BaseMatcher<T> {
 
     private final TimeUnit timeUnit;
     private final long durationNanos;
-    private final long intervalNanos;
+    private final RetryPolicy retryPolicy;
+    private final Ticker ticker;
+    private final WaitStrategy waitStrategy;
     private final Matcher<? super T> subMatcher;
 
-    private RetryMatcher(long durationNanos, long intervalNanos, TimeUnit timeUnit, Matcher<? super T> subMatcher) {
+    private RetryMatcher(long duration, TimeUnit timeUnit, RetryPolicy retryPolicy, Ticker ticker,
+                         WaitStrategy waitStrategy, Matcher<? super T> subMatcher) {
         this.timeUnit = timeUnit;
-        this.durationNanos = timeUnit.toNanos(durationNanos);
-        this.intervalNanos = timeUnit.toNanos(intervalNanos);
+        this.durationNanos = timeUnit.toNanos(duration);
+        this.retryPolicy = retryPolicy;
+        this.ticker = ticker;
+        this.waitStrategy = waitStrategy;
         this.subMatcher = subMatcher;
     }
 
     @Override
     public boolean matches(Object item) {
-        final long start = System.nanoTime();
-        final long parkTime = Math.min(this.intervalNanos, durationNanos);
+        final long start = ticker.nanoTime();
 
-        while (!threadSafeMatches(item)) {
-            final long elapsed = System.nanoTime() - start;
+        for (int attempt = 1; !threadSafeMatches(item); attempt++) {
+            final long elapsed = ticker.nanoTime() - start;
             if (elapsed >= durationNanos) {
                 return false;
             }
-            LockSupport.parkNanos(parkTime);
+            waitStrategy.await(delayNanos(attempt, durationNanos - elapsed));
         }
         return true;
     }
 
-    private final Object LOCK = new Object();
+    private long delayNanos(int attempt, long remainingNanos) {
+        return Math.max(0, Math.min(retryPolicy.delayNanos(attempt), remainingNanos));
+    }
+
+    /**
+     * Polls the sub-matcher on the shared retry scheduler, without blocking the calling thread. The returned future
+     * fails with the same {@link AssertionError} message {@code assertThat(item, matcher)} would produce.
+     */
+    CompletableFuture<Void> matchesAsync(T item) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        AtomicReference<Future<?>> pending = new AtomicReference<>();
+        // a cancelled or completed future drops its pending probe, so the scheduler does not keep it until its delay
+        result.whenComplete((ignored, e) -> cancel(pending.get()));
+        long start = ticker.nanoTime();
+        RetryScheduler.INSTANCE.execute(() -> attempt(item, 1, start, result, pending));
+        return result;
+    }
+
+    private void attempt(T item, int attempt, long start, CompletableFuture<Void> result,
+                         AtomicReference<Future<?>> pending) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            if (threadSafeMatches(item)) {
+                result.complete(null);
+                return;
+            }
+            long remaining = durationNanos - (ticker.nanoTime() - start);
+            if (remaining <= 0) {
+                result.completeExceptionally(new AssertionError(assertionMessage(item)));
+                return;
+            }
+            pending.set(RetryScheduler.INSTANCE.schedule(() -> attempt(item, attempt + 1, start, result, pending),
+                    delayNanos(attempt, remaining), TimeUnit.NANOSECONDS));
+            if (result.isDone()) {
+                // completed while the probe was being scheduled, after the completion callback read the reference
+                cancel(pending.get());
+            }
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static void cancel(Future<?> future) {
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    private String assertionMessage(T item) {
+        Description description = new StringDescription();
+        description.appendText(System.lineSeparator())
+                .appendText("Expected: ")
+                .appendDescriptionOf(this)
+                .appendText(System.lineSeparator())
+                .appendText("     but: ");
+        describeMismatch(item, description);
+        return description.toString();
+    }
+
+    // not a monitor, so a virtual thread blocked in the sub-matcher, or waiting for it, does not pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
 
     private boolean threadSafeMatches(Object item) {
-        synchronized (LOCK) {
+        lock.lock();
+        try {
             return subMatcher.matches(item);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -69,17 +144,68 @@ final class RetryMatcher<T> extends BaseMatcher<T> {
 
     @Override
     public void describeMismatch(Object item, Description description) {
+        describeTimeout(durationNanos, timeUnit, description);
+        subMatcher.describeMismatch(item, description);
+    }
+
+    static void describeTimeout(long durationNanos, TimeUnit timeUnit, Description description) {
         final long duration = timeUnit.convert(durationNanos, TimeUnit.NANOSECONDS);
         final String timeUnitStr = timeUnit.toString().toLowerCase().replaceAll("s$", "(s)");
         description.appendText("after " + duration + " " + timeUnitStr);
-        subMatcher.describeMismatch(item, description);
+    }
+
+    static <T> CompletableFuture<Void> retryAsync(long duration, TimeUnit timeUnit, RetryPolicy retryPolicy,
+                                                  Matcher<? super T> subMatcher, T item) {
+        return new RetryMatcher<T>(duration, timeUnit, retryPolicy, Ticker.system(), WaitStrategy.park(), subMatcher)
+                .matchesAsync(item);
+    }
+
+    static <T> CompletableFuture<Void> retryAsync(long duration, long interval, TimeUnit timeUnit,
+                                                  Matcher<? super T> subMatcher, T item) {
+        return retryAsync(duration, timeUnit, RetryPolicy.fixed(interval, timeUnit), subMatcher, item);
+    }
+
+    static <T> Matcher<T> retry(long duration, TimeUnit timeUnit, RetryPolicy retryPolicy, Ticker ticker,
+                                WaitStrategy waitStrategy, Matcher<? super T> subMatcher) {
+        return new RetryMatcher<>(duration, timeUnit, retryPolicy, ticker, waitStrategy, subMatcher);
+    }
+
+    static <T> Matcher<T> retry(long duration, TimeUnit timeUnit, RetryPolicy retryPolicy, WaitStrategy waitStrategy,
+                                Matcher<? super T> subMatcher) {
+        return retry(duration, timeUnit, retryPolicy, Ticker.system(), waitStrategy, subMatcher);
+    }
+
+    static <T> Matcher<T> retry(long duration, TimeUnit timeUnit, RetryPolicy retryPolicy,
+                                Matcher<? super T> subMatcher) {
+        return retry(duration, timeUnit, retryPolicy, WaitStrategy.park(), subMatcher);
     }
 
     static <T> Matcher<T> retry(long duration, long interval, TimeUnit timeUnit, Matcher<? super T> subMatcher) {
-        return new RetryMatcher<>(duration, interval, timeUnit, subMatcher);
+        return retry(duration, timeUnit, RetryPolicy.fixed(interval, timeUnit), subMatcher);
     }
 
     static <T> Matcher<T> retry(long duration, TimeUnit timeUnit, Matcher<? super T> subMatcher) {
         return retry(duration, TimeUnit.MILLISECONDS.convert(DEFAULT_INTERVAL_MILLIS, timeUnit), timeUnit, subMatcher);
     }
+
+    /**
+     * The scheduler shared by all the asynchronous retries. Its few daemon threads only run the attempts,
+     * the retries waiting for their next attempt do not hold any thread.
+     */
+    private static final class RetryScheduler {
+
+        static final ScheduledThreadPoolExecutor INSTANCE = createScheduler();
+
+        private static ScheduledThreadPoolExecutor createScheduler() {
+            AtomicInteger threadCount = new AtomicInteger();
+            int poolSize = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(poolSize, runnable -> {
+                Thread thread = new Thread(runnable, "lambdamatchers-retry-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
 }
@@ -18,7 +18,11 @@ package ro.derbederos.hamcrest;
 
 import org.hamcrest.Matcher;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -78,6 +82,99 @@ public final class RetryMatchers {
         return RetryMatcher.retry(timeout, interval, timeUnit, matcher);
     }
 
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the given {@code matcher} matches the input, with the delays
+     * between the checks given by the {@code retryPolicy}, until {@code timeout} is reached.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(service, retry(30, SECONDS, RetryPolicy.exponentialWithJitter(10, 1000, MILLISECONDS), isHealthy()));
+     * </pre>
+     *
+     * @param timeout     The duration of the retry. Will fail afterwards if {@code matcher} fails.
+     * @param timeUnit    The {@link TimeUnit} in which {@code timeout} is represented.
+     * @param retryPolicy The {@link RetryPolicy} that gives the delays between two consecutive checks.
+     * @param matcher     The {@link Matcher} to be applied on the input.
+     * @param <T>         The type of the input.
+     * @since 0.20
+     */
+    public static <T> Matcher<T> retry(long timeout,
+                                       TimeUnit timeUnit,
+                                       RetryPolicy retryPolicy,
+                                       Matcher<? super T> matcher) {
+        return RetryMatcher.retry(timeout, timeUnit, retryPolicy, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the given {@code matcher} matches the input, with the delays
+     * between the checks given by the {@code retryPolicy}, until {@code timeout} is reached, as measured by
+     * the given {@code ticker}. The thread waits between the checks using the given {@code waitStrategy}.
+     * </p>
+     * <p>
+     * A {@link VirtualTime} used as both the {@code ticker} and the {@code waitStrategy} simulates the retry
+     * without actually waiting, so the scenarios with long timeouts are evaluated in milliseconds.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * VirtualTime time = new VirtualTime();
+     * assertThat(session, retry(30, MINUTES, RetryPolicy.fixed(1, MINUTES), time, time,
+     *         hasFeature(session -&gt; session.isExpiredAt(time.nanoTime()), equalTo(true))));
+     * </pre>
+     *
+     * @param timeout      The duration of the retry. Will fail afterwards if {@code matcher} fails.
+     * @param timeUnit     The {@link TimeUnit} in which {@code timeout} is represented.
+     * @param retryPolicy  The {@link RetryPolicy} that gives the delays between two consecutive checks.
+     * @param ticker       The {@link Ticker} measuring the duration of the retry.
+     * @param waitStrategy The {@link WaitStrategy} used for waiting between two consecutive checks.
+     * @param matcher      The {@link Matcher} to be applied on the input.
+     * @param <T>          The type of the input.
+     * @since 0.20
+     */
+    public static <T> Matcher<T> retry(long timeout,
+                                       TimeUnit timeUnit,
+                                       RetryPolicy retryPolicy,
+                                       Ticker ticker,
+                                       WaitStrategy waitStrategy,
+                                       Matcher<? super T> matcher) {
+        return RetryMatcher.retry(timeout, timeUnit, retryPolicy, ticker, waitStrategy, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the given {@code matcher} matches the input, with the delays
+     * between the checks given by the {@code retryPolicy}, until {@code timeout} is reached. The thread waits
+     * between the checks using the given {@code waitStrategy}.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(queue, retry(10, MILLISECONDS, RetryPolicy.fixed(20, MICROSECONDS),
+     *         WaitStrategy.spinThenPark(100, MICROSECONDS), hasSize(3)));
+     * </pre>
+     *
+     * @param timeout      The duration of the retry. Will fail afterwards if {@code matcher} fails.
+     * @param timeUnit     The {@link TimeUnit} in which {@code timeout} is represented.
+     * @param retryPolicy  The {@link RetryPolicy} that gives the delays between two consecutive checks.
+     * @param waitStrategy The {@link WaitStrategy} used for waiting between two consecutive checks.
+     * @param matcher      The {@link Matcher} to be applied on the input.
+     * @param <T>          The type of the input.
+     * @since 0.20
+     */
+    public static <T> Matcher<T> retry(long timeout,
+                                       TimeUnit timeUnit,
+                                       RetryPolicy retryPolicy,
+                                       WaitStrategy waitStrategy,
+                                       Matcher<? super T> matcher) {
+        return RetryMatcher.retry(timeout, timeUnit, retryPolicy, waitStrategy, matcher);
+    }
+
     /**
      * <p>
      * Creates a {@link Matcher} that checks if the given {@code matcher} matches the input, every
@@ -174,6 +271,214 @@ public final class RetryMatchers {
         return retry(timeoutMillis, TypeResolverFeatureMatcherFactory.feature(featureExtractor, featureMatcher));
     }
 
+    /**
+     * <p>
+     * Checks asynchronously if the given {@code matcher} matches the {@code item}, every {@code interval},
+     * until {@code timeout} is reached, without blocking the calling thread.
+     * </p>
+     * <p>
+     * The attempts are scheduled on a small pool of daemon threads shared by all the asynchronous retries, so
+     * thousands of pending retries do not need thousands of blocked threads. The returned future completes
+     * when the {@code matcher} matches, and fails with an {@link AssertionError} having the same message
+     * as {@code assertThat(item, retry(timeout, interval, timeUnit, matcher))} when the timeout is reached.
+     * Cancelling the future stops the retry.
+     * </p>
+     * <p>
+     * The {@code matcher} is evaluated on the shared threads, so it should not block for long.
+     * </p>
+     *
+     * @param timeout  The duration of the retry. The future fails afterwards if {@code matcher} fails.
+     * @param interval The interval between two consecutive checks.
+     * @param timeUnit The {@link TimeUnit} in which {@code timeout} and {@code interval} are represented.
+     * @param matcher  The {@link Matcher} to be applied on the item.
+     * @param item     The item to be matched.
+     * @param <T>      The type of the item.
+     * @return A future that completes when the {@code matcher} matches the {@code item}.
+     * @since 0.20
+     */
+    public static <T> CompletableFuture<Void> retryAsync(long timeout,
+                                                         long interval,
+                                                         TimeUnit timeUnit,
+                                                         Matcher<? super T> matcher,
+                                                         T item) {
+        return RetryMatcher.retryAsync(timeout, interval, timeUnit, matcher, item);
+    }
+
+    /**
+     * <p>
+     * Checks asynchronously if the given {@code matcher} matches the {@code item}, with the delays between
+     * the checks given by the {@code retryPolicy}, until {@code timeout} is reached, without blocking
+     * the calling thread.
+     * </p>
+     *
+     * @param timeout     The duration of the retry. The future fails afterwards if {@code matcher} fails.
+     * @param timeUnit    The {@link TimeUnit} in which {@code timeout} is represented.
+     * @param retryPolicy The {@link RetryPolicy} that gives the delays between two consecutive checks.
+     * @param matcher     The {@link Matcher} to be applied on the item.
+     * @param item        The item to be matched.
+     * @param <T>         The type of the item.
+     * @return A future that completes when the {@code matcher} matches the {@code item}.
+     * @see #retryAsync(long, long, TimeUnit, Matcher, Object)
+     * @since 0.20
+     */
+    public static <T> CompletableFuture<Void> retryAsync(long timeout,
+                                                         TimeUnit timeUnit,
+                                                         RetryPolicy retryPolicy,
+                                                         Matcher<? super T> matcher,
+                                                         T item) {
+        return RetryMatcher.retryAsync(timeout, timeUnit, retryPolicy, matcher, item);
+    }
+
+    /**
+     * <p>
+     * Checks asynchronously if the given {@code matcher} matches the {@code item}, every {@code intervalMillis},
+     * until {@code timeoutMillis} is reached, without blocking the calling thread.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * CompletableFuture&lt;Void&gt; replicated =
+     *         retryAsync(5000, 100, hasFeature(Replica::getVersion, equalTo(7)), replica);
+     * </pre>
+     *
+     * @param timeoutMillis  The duration of the retry. The future fails afterwards if {@code matcher} fails.
+     * @param intervalMillis The interval between two consecutive checks.
+     * @param matcher        The {@link Matcher} to be applied on the item.
+     * @param item           The item to be matched.
+     * @param <T>            The type of the item.
+     * @return A future that completes when the {@code matcher} matches the {@code item}.
+     * @see #retryAsync(long, long, TimeUnit, Matcher, Object)
+     * @since 0.20
+     */
+    public static <T> CompletableFuture<Void> retryAsync(long timeoutMillis,
+                                                         long intervalMillis,
+                                                         Matcher<? super T> matcher,
+                                                         T item) {
+        return retryAsync(timeoutMillis, intervalMillis, MILLISECONDS, matcher, item);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the given {@code matcher} matches the input, and checks it again
+     * only after the {@code changeSource} notifies a change, until {@code timeout} is reached.
+     * </p>
+     * <p>
+     * The thread does not poll between the changes, and a change is detected as soon as it is notified, instead of
+     * up to an interval later. A change notified while the {@code matcher} is evaluated triggers another evaluation.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(response, retryOnChange(5, SECONDS, ChangeSource.of(response),
+     *         hasFeature(CompletableFuture::isDone, equalTo(true))));
+     * </pre>
+     *
+     * @param timeout      The duration of the retry. Will fail afterwards if {@code matcher} fails.
+     * @param timeUnit     The {@link TimeUnit} in which {@code timeout} is represented.
+     * @param changeSource The {@link ChangeSource} notifying the changes of the input, like a {@link ChangeSignal}.
+     * @param matcher      The {@link Matcher} to be applied on the input.
+     * @param <T>          The type of the input.
+     * @since 0.20
+     */
+    public static <T> Matcher<T> retryOnChange(long timeout,
+                                               TimeUnit timeUnit,
+                                               ChangeSource changeSource,
+                                               Matcher<? super T> matcher) {
+        return SignalRetryMatcher.retryOnChange(timeout, timeUnit, changeSource, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if the given {@code matcher} matches the input while holding the given
+     * {@code lock}, and checks it again only after the {@code condition} is signaled, until {@code timeout}
+     * is reached.
+     * </p>
+     * <p>
+     * The code changing the input must hold the {@code lock} and call {@link Condition#signalAll()} after the change,
+     * so a change can never be missed.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(inventory, retryOnSignal(5, SECONDS, inventoryLock, inventoryChanged,
+     *         hasFeature(Inventory::size, equalTo(3))));
+     * </pre>
+     *
+     * @param timeout   The duration of the retry. Will fail afterwards if {@code matcher} fails.
+     * @param timeUnit  The {@link TimeUnit} in which {@code timeout} is represented.
+     * @param lock      The {@link Lock} guarding the input.
+     * @param condition The {@link Condition} of the {@code lock} signaled after every change of the input.
+     * @param matcher   The {@link Matcher} to be applied on the input.
+     * @param <T>       The type of the input.
+     * @since 0.20
+     */
+    public static <T> Matcher<T> retryOnSignal(long timeout,
+                                               TimeUnit timeUnit,
+                                               Lock lock,
+                                               Condition condition,
+                                               Matcher<? super T> matcher) {
+        return SignalRetryMatcher.retryOnSignal(timeout, timeUnit, lock, condition, matcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} for append-only collections that checks if every item matches the given
+     * {@code itemMatcher}. It is meant to be retried on collections that keep growing, like event logs:
+     * the matcher remembers how many items of the last matched collection were verified, and on the next
+     * evaluation of the same collection it checks only the items that were appended since then.
+     * </p>
+     * <p>
+     * The verified items are assumed not to change. Lists are resumed from the first unverified index, while
+     * FIFO queues and deques, like {@link java.util.concurrent.ConcurrentLinkedQueue}, skip the verified items
+     * without matching them again. Any other collection, like a {@link java.util.PriorityQueue}, is fully
+     * matched on every evaluation, and so is a collection whose first item changed.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(eventLog, retry(5000, incrementalEveryItem(hasFeature(Event::getStatus, equalTo(OK)))));
+     * </pre>
+     *
+     * @param itemMatcher The {@link Matcher} to be applied on every item of the collection.
+     * @param <T>         The type of the elements in the input collection.
+     * @since 0.20
+     */
+    public static <T> Matcher<Collection<? extends T>> incrementalEveryItem(Matcher<? super T> itemMatcher) {
+        return IncrementalCollectionMatcher.everyItem(itemMatcher);
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} for append-only collections that checks if any item matches the given
+     * {@code itemMatcher}. It is meant to be retried on collections that keep growing, like event logs:
+     * the matcher remembers how many items of the last matched collection were already checked, and on the next
+     * evaluation of the same collection it checks only the items that were appended since then.
+     * </p>
+     * <p>
+     * The checked items are assumed not to change. Lists are resumed from the first unchecked index, while
+     * FIFO queues and deques, like {@link java.util.concurrent.ConcurrentLinkedQueue}, skip the checked items
+     * without matching them again. Any other collection, like a {@link java.util.PriorityQueue}, is fully
+     * matched on every evaluation, and so is a collection whose first item changed.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(eventLog, retry(5000, incrementalHasItem(hasFeature(Event::getType, equalTo(SHUTDOWN)))));
+     * </pre>
+     *
+     * @param itemMatcher The {@link Matcher} to be applied on the items of the collection.
+     * @param <T>         The type of the elements in the input collection.
+     * @since 0.20
+     */
+    public static <T> Matcher<Collection<? extends T>> incrementalHasItem(Matcher<? super T> itemMatcher) {
+        return IncrementalCollectionMatcher.hasItem(itemMatcher);
+    }
+
     /**
      * <p>
      * This is an assert function that takes as input a supplier and a matcher for its value.
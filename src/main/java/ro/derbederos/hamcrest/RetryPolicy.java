@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * The delays between the consecutive attempts of a retry matcher, as used by
+ * {@link RetryMatchers#retry(long, TimeUnit, RetryPolicy, org.hamcrest.Matcher)}.
+ * </p>
+ * <p>
+ * Growing delays keep fast conditions detected quickly, with short first delays, while probing expensive
+ * conditions, like HTTP or database checks, less often during long timeouts. A custom policy is any
+ * implementation of this interface:
+ * </p>
+ * <pre>
+ * assertThat(service, retry(30, SECONDS, attempt -&gt; MILLISECONDS.toNanos(100L * attempt), isHealthy()));
+ * </pre>
+ * <p>
+ * Policies are shared by all the evaluations of a matcher, so they must be thread-safe.
+ * </p>
+ *
+ * @since 0.20
+ */
+@FunctionalInterface
+public interface RetryPolicy {
+
+    /**
+     * <p>
+     * Returns the delay before the next attempt, after the given failed attempt.
+     * </p>
+     *
+     * @param attempt The number of the failed attempt, starting with {@code 1}.
+     * @return The delay in nanoseconds. Negative values are handled as {@code 0}.
+     * @since 0.20
+     */
+    long delayNanos(int attempt);
+
+    /**
+     * <p>
+     * Creates a policy with the same {@code interval} between all the attempts.
+     * </p>
+     *
+     * @param interval The delay between two consecutive attempts.
+     * @param timeUnit The {@link TimeUnit} in which {@code interval} is represented.
+     * @return The retry policy.
+     * @since 0.20
+     */
+    static RetryPolicy fixed(long interval, TimeUnit timeUnit) {
+        long intervalNanos = timeUnit.toNanos(interval);
+        return attempt -> intervalNanos;
+    }
+
+    /**
+     * <p>
+     * Creates a policy where the delay starts with {@code initialInterval} and is multiplied by {@code multiplier}
+     * after every attempt, until it reaches {@code maxInterval}.
+     * </p>
+     * <pre>
+     * retry(10, SECONDS, exponential(1, 500, 2.0, MILLISECONDS), hasFeature(Order::getStatus, equalTo(SHIPPED)))
+     * </pre>
+     *
+     * @param initialInterval The delay after the first attempt.
+     * @param maxInterval     The maximum delay between two consecutive attempts.
+     * @param multiplier      The growth factor of the delay, at least {@code 1}.
+     * @param timeUnit        The {@link TimeUnit} in which the intervals are represented.
+     * @return The retry policy.
+     * @since 0.20
+     */
+    static RetryPolicy exponential(long initialInterval, long maxInterval, double multiplier, TimeUnit timeUnit) {
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("The multiplier must be at least 1, but was " + multiplier);
+        }
+        long initialNanos = timeUnit.toNanos(initialInterval);
+        long maxNanos = timeUnit.toNanos(maxInterval);
+        return attempt -> (long) Math.min(initialNanos * Math.pow(multiplier, attempt - 1), maxNanos);
+    }
+
+    /**
+     * <p>
+     * Creates a policy where the delay starts with {@code initialInterval} and doubles after every attempt, until
+     * it reaches {@code maxInterval}. Every delay is then reduced by a random amount of up to half of it, so that
+     * retries started at the same time do not keep probing at the same time.
+     * </p>
+     *
+     * @param initialInterval The delay after the first attempt, before the jitter is applied.
+     * @param maxInterval     The maximum delay between two consecutive attempts.
+     * @param timeUnit        The {@link TimeUnit} in which the intervals are represented.
+     * @return The retry policy.
+     * @since 0.20
+     */
+    static RetryPolicy exponentialWithJitter(long initialInterval, long maxInterval, TimeUnit timeUnit) {
+        RetryPolicy exponential = exponential(initialInterval, maxInterval, 2.0, timeUnit);
+        return attempt -> {
+            long delay = exponential.delayNanos(attempt);
+            return delay - ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        };
+    }
+
+    /**
+     * <p>
+     * Creates a policy where the delays follow the Fibonacci sequence, in multiples of {@code initialInterval}
+     * ({@code 1, 1, 2, 3, 5, 8...}), until they reach {@code maxInterval}. The delays grow slower than with
+     * an exponential policy.
+     * </p>
+     *
+     * @param initialInterval The delay after the first and the second attempts.
+     * @param maxInterval     The maximum delay between two consecutive attempts.
+     * @param timeUnit        The {@link TimeUnit} in which the intervals are represented.
+     * @return The retry policy.
+     * @since 0.20
+     */
+    static RetryPolicy fibonacci(long initialInterval, long maxInterval, TimeUnit timeUnit) {
+        long initialNanos = timeUnit.toNanos(initialInterval);
+        long maxNanos = timeUnit.toNanos(maxInterval);
+        return attempt -> {
+            long previous = 0;
+            long current = initialNanos;
+            for (int i = 1; i < attempt && current < maxNanos; i++) {
+                long next = previous + current;
+                previous = current;
+                current = next < 0 ? maxNanos : next;
+            }
+            return Math.min(current, maxNanos);
+        };
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps one {@link Matcher} per thread for a pattern, reset for every input, so evaluating the pattern does not
+ * allocate a new matcher and its group arrays every time. The matcher is released after every use, so it does not
+ * retain the input, and a reentrant use on the same thread gets a new matcher.
+ */
+final class ReusableMatcher {
+
+    private final Pattern pattern;
+    private final ThreadLocal<Matcher> matchers;
+
+    ReusableMatcher(Pattern pattern) {
+        this.pattern = pattern;
+        this.matchers = ThreadLocal.withInitial(() -> pattern.matcher(""));
+    }
+
+    boolean matches(CharSequence input) {
+        Matcher matcher = acquire(input);
+        try {
+            return matcher.matches();
+        } finally {
+            release(matcher);
+        }
+    }
+
+    boolean find(CharSequence input) {
+        Matcher matcher = acquire(input);
+        try {
+            return matcher.find();
+        } finally {
+            release(matcher);
+        }
+    }
+
+    /**
+     * Returns a matcher reset to the given input, that must be given back through {@link #release(Matcher)}.
+     */
+    Matcher acquire(CharSequence input) {
+        Matcher matcher = matchers.get();
+        if (matcher == null) {
+            return pattern.matcher(input);
+        }
+        matchers.set(null);
+        return matcher.reset(input);
+    }
+
+    void release(Matcher matcher) {
+        matchers.set(matcher.reset(""));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A retry matcher that evaluates its sub-matcher again only after a change notification, instead of polling,
+ * until the timeout is reached. The change source is subscribed before the first evaluation, and the change flag
+ * is cleared before every evaluation, so a change made while the sub-matcher is evaluated is not lost.
+ */
+final class SignalRetryMatcher<T> extends BaseMatcher<T> {
+
+    private final TimeUnit timeUnit;
+    private final long durationNanos;
+    private final ChangeSource changeSource;
+    private final Lock lock;
+    private final Condition condition;
+    private final Matcher<? super T> subMatcher;
+
+    private SignalRetryMatcher(long duration, TimeUnit timeUnit, ChangeSource changeSource, Lock lock,
+                               Condition condition, Matcher<? super T> subMatcher) {
+        this.timeUnit = timeUnit;
+        this.durationNanos = timeUnit.toNanos(duration);
+        this.changeSource = changeSource;
+        this.lock = lock;
+        this.condition = condition;
+        this.subMatcher = subMatcher;
+    }
+
+    @Override
+    public boolean matches(Object item) {
+        return condition != null ? matchesOnCondition(item) : matchesOnChange(item);
+    }
+
+    private boolean matchesOnChange(Object item) {
+        final long deadline = System.nanoTime() + durationNanos;
+        final Thread waiter = Thread.currentThread();
+        final AtomicBoolean changed = new AtomicBoolean();
+        final Runnable unsubscribe = changeSource.subscribe(() -> {
+            changed.set(true);
+            LockSupport.unpark(waiter);
+        });
+        try {
+            while (true) {
+                changed.set(false);
+                if (threadSafeMatches(item)) {
+                    return true;
+                }
+                while (!changed.get()) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || waiter.isInterrupted()) {
+                        return false;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                }
+            }
+        } finally {
+            unsubscribe.run();
+        }
+    }
+
+    private boolean matchesOnCondition(Object item) {
+        long remaining = durationNanos;
+        lock.lock();
+        try {
+            while (!subMatcher.matches(item)) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = condition.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean threadSafeMatches(Object item) {
+        lock.lock();
+        try {
+            return subMatcher.matches(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        subMatcher.describeTo(description);
+    }
+
+    @Override
+    public void describeMismatch(Object item, Description description) {
+        RetryMatcher.describeTimeout(durationNanos, timeUnit, description);
+        subMatcher.describeMismatch(item, description);
+    }
+
+    static <T> Matcher<T> retryOnChange(long duration, TimeUnit timeUnit, ChangeSource changeSource,
+                                        Matcher<? super T> subMatcher) {
+        return new SignalRetryMatcher<>(duration, timeUnit, changeSource, new ReentrantLock(), null, subMatcher);
+    }
+
+    static <T> Matcher<T> retryOnSignal(long duration, TimeUnit timeUnit, Lock lock, Condition condition,
+                                        Matcher<? super T> subMatcher) {
+        return new SignalRetryMatcher<>(duration, timeUnit, null, lock, condition, subMatcher);
+    }
+}
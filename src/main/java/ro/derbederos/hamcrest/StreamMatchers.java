@@ -18,8 +18,16 @@ package ro.derbederos.hamcrest;
 
 import org.hamcrest.Matcher;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.BaseStream;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -31,6 +39,8 @@ import static ro.derbederos.hamcrest.LambdaMatchers.hasFeature;
  * This class provides a set of mapping matchers for Java 8+ streams.
  * Basically it contains matchers that convert streams to {@link Iterable} and allow {@link Iterable}
  * matchers to be used.
+ * It also contains matchers that evaluate the items through the stream's own pipeline, so a parallel stream
+ * keeps being evaluated in parallel.
  * </p>
  * <p>
  * Examples:
@@ -41,6 +51,8 @@ import static ro.derbederos.hamcrest.LambdaMatchers.hasFeature;
  * assertThat(stream, toIterable(hasItem("Ana Pop"));
  *
  * assertThat(Stream.empty(), emptyStream());
+ *
+ * assertThat(list.parallelStream(), allItems(hasFeature(Person::getAge, greaterThanOrEqualTo(21))));
  * </pre>
  *
  * @since 0.6
@@ -109,43 +121,320 @@ public final class StreamMatchers {
      * @since 0.1
      */
     public static <T, S extends BaseStream<T, S>> Matcher<BaseStream<T, S>> emptyStream() {
-        return hasFeature(cacheResultFunction(StreamMatchers::streamToIterable), emptyIterable());
+        return hasFeature(cacheResultFunction(StreamMatchers::summarize), emptySummary());
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every item of the input stream matches the given {@code itemMatcher}.
+     * The stream is consumed using its own pipeline, so a parallel stream is evaluated in parallel.
+     * The mismatch description always reports the first failing item in encounter order.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(list.parallelStream(), allItems(hasFeature(Person::getAge, greaterThanOrEqualTo(21))));
+     * </pre>
+     *
+     * @param itemMatcher The matcher to be applied on every item of the stream.
+     * @param <T>         The type of the elements in the input stream.
+     * @since 0.20
+     */
+    public static <T> Matcher<Stream<T>> allItems(Matcher<? super T> itemMatcher) {
+        return Evaluation.matcher(Stream.class,
+                description -> description.appendText("a stream where every item is ").appendDescriptionOf(itemMatcher),
+                stream -> findFirst(stream, item -> !itemMatcher.matches(item))
+                        .map(item -> Evaluation.mismatch(description -> {
+                            description.appendText("an item ");
+                            itemMatcher.describeMismatch(item.get(0), description);
+                        }))
+                        .orElse(Evaluation.MATCHED));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if every item of the input stream matches the given {@code itemMatcher},
+     * with a bounded memory mismatch description. Unlike {@link #allItems(Matcher)}, the whole stream is consumed,
+     * in parallel if the stream is parallel, and the mismatch description shows the number of failing items,
+     * their positions, the first and the last {@code descriptionLimit} items and the total number of items.
+     * No more than {@code descriptionLimit} items or positions of each kind are kept in memory.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(hugeStream, allItems(hasFeature(Person::getAge, greaterThanOrEqualTo(21)), 10));
+     * </pre>
+     *
+     * @param itemMatcher      The matcher to be applied on every item of the stream.
+     * @param descriptionLimit The maximum number of items and positions rendered from each end of the stream.
+     * @param <T>              The type of the elements in the input stream.
+     * @since 0.20
+     */
+    public static <T> Matcher<Stream<T>> allItems(Matcher<? super T> itemMatcher, int descriptionLimit) {
+        Collector<T, ?, ItemsSummary<T>> summarizing = summarizing(descriptionLimit, item -> !itemMatcher.matches(item));
+        return Evaluation.matcher(Stream.class,
+                description -> description.appendText("a stream where every item is ").appendDescriptionOf(itemMatcher),
+                stream -> {
+                    ItemsSummary<T> summary = stream.collect(summarizing);
+                    if (summary.getFailureCount() == 0) {
+                        return Evaluation.MATCHED;
+                    }
+                    return Evaluation.mismatch(description -> summary.describeMismatch(itemMatcher, description));
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if any item of the input stream matches the given {@code itemMatcher}.
+     * The stream is consumed using its own pipeline, so a parallel stream is evaluated in parallel.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(list.parallelStream(), anyItem(hasFeature(Person::getName, startsWith("Ana"))));
+     * </pre>
+     *
+     * @param itemMatcher The matcher to be applied on the items of the stream.
+     * @param <T>         The type of the elements in the input stream.
+     * @since 0.20
+     */
+    public static <T> Matcher<Stream<T>> anyItem(Matcher<? super T> itemMatcher) {
+        return Evaluation.matcher(Stream.class,
+                description -> description.appendText("a stream having an item that is ").appendDescriptionOf(itemMatcher),
+                stream -> stream.anyMatch(itemMatcher::matches)
+                        ? Evaluation.MATCHED
+                        : Evaluation.mismatch(description -> description.appendText("no item matched")));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks if no item of the input stream matches the given {@code itemMatcher}.
+     * The stream is consumed using its own pipeline, so a parallel stream is evaluated in parallel.
+     * The mismatch description always reports the first matching item in encounter order.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(list.parallelStream(), noItem(hasFeature(Person::getAge, lessThan(0))));
+     * </pre>
+     *
+     * @param itemMatcher The matcher that no item of the stream should match.
+     * @param <T>         The type of the elements in the input stream.
+     * @since 0.20
+     */
+    public static <T> Matcher<Stream<T>> noItem(Matcher<? super T> itemMatcher) {
+        return Evaluation.matcher(Stream.class,
+                description -> description.appendText("a stream having no item that is ").appendDescriptionOf(itemMatcher),
+                stream -> findFirst(stream, itemMatcher::matches)
+                        .map(item -> Evaluation.mismatch(description -> description.appendText("item ")
+                                .appendValue(item.get(0)).appendText(" matched")))
+                        .orElse(Evaluation.MATCHED));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that checks the number of items of the input {@link BaseStream}.
+     * The stream is consumed using its own pipeline, so a parallel stream is counted in parallel.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(list.parallelStream(), itemCount(equalTo(3L)));
+     * </pre>
+     *
+     * @param countMatcher The matcher to be applied on the number of items.
+     * @param <T>          The type of the stream elements.
+     * @param <S>          The type of the stream implementing {@code BaseStream}.
+     * @since 0.20
+     */
+    public static <T, S extends BaseStream<T, S>> Matcher<BaseStream<T, S>> itemCount(Matcher<? super Long> countMatcher) {
+        return Evaluation.matcher(BaseStream.class,
+                description -> description.appendText("a stream with count ").appendDescriptionOf(countMatcher),
+                stream -> {
+                    long count = StreamSupport.stream(stream.spliterator(), stream.isParallel()).count();
+                    if (countMatcher.matches(count)) {
+                        return Evaluation.MATCHED;
+                    }
+                    return Evaluation.mismatch(description -> {
+                        description.appendText("count ");
+                        countMatcher.describeMismatch(count, description);
+                    });
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that reduces the input stream using the given {@code identity} and
+     * {@code accumulator}, and applies the {@code resultMatcher} on the result.
+     * The stream is reduced using its own pipeline, so a parallel stream is reduced in parallel.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(amounts.parallelStream(), reducing(BigDecimal.ZERO, BigDecimal::add, comparesEqualTo(total)));
+     * </pre>
+     *
+     * @param identity      The identity value of the {@code accumulator} function.
+     * @param accumulator   An associative, non-interfering and stateless function for combining two values.
+     * @param resultMatcher The matcher to be applied on the result of the reduction.
+     * @param <T>           The type of the elements in the input stream.
+     * @since 0.20
+     */
+    public static <T> Matcher<Stream<T>> reducing(T identity,
+                                                  BinaryOperator<T> accumulator,
+                                                  Matcher<? super T> resultMatcher) {
+        return Evaluation.matcher(Stream.class,
+                description -> description.appendText("a stream reduced to ").appendDescriptionOf(resultMatcher),
+                stream -> {
+                    T result = stream.reduce(identity, accumulator);
+                    if (resultMatcher.matches(result)) {
+                        return Evaluation.MATCHED;
+                    }
+                    return Evaluation.mismatch(description -> {
+                        description.appendText("reduced value ");
+                        resultMatcher.describeMismatch(result, description);
+                    });
+                });
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that collects the input stream using the given {@code collector}, in a single pass,
+     * and applies the {@code resultMatcher} on the result. The stream is collected using its own pipeline,
+     * so a parallel stream is collected in parallel.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(stream, collecting(Collectors.joining(","), equalTo("a,b,c")));
+     *
+     * assertThat(people.parallelStream(), collecting(groupingBy(Person::getAge, counting()), hasEntry(21, 3L)));
+     * </pre>
+     *
+     * @param collector     The collector that reduces the items of the stream.
+     * @param resultMatcher The matcher to be applied on the result of the collector.
+     * @param <T>           The type of the elements in the input stream.
+     * @param <R>           The type of the result of the {@code collector}.
+     * @since 0.20
+     */
+    public static <T, R> Matcher<Stream<T>> collecting(Collector<? super T, ?, R> collector,
+                                                       Matcher<? super R> resultMatcher) {
+        return Evaluation.matcher(Stream.class,
+                description -> description.appendText("a stream collected to ").appendDescriptionOf(resultMatcher),
+                stream -> collectedEvaluation(stream.collect(collector), "collected ", resultMatcher));
+    }
+
+    /**
+     * <p>
+     * Creates a {@link Matcher} that maps every item of the input stream using the {@code featureExtractor},
+     * collects the features using the given {@code collector}, in a single pass, and applies the {@code resultMatcher}
+     * on the result. The stream is collected using its own pipeline, so a parallel stream is collected in parallel.
+     * </p>
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     * assertThat(people.stream(), collecting(Person::getName, Collectors.joining(","), startsWith("Ana")));
+     * </pre>
+     *
+     * @param featureExtractor The function that transforms every element of the input stream.
+     * @param collector        The collector that reduces the features extracted from the stream.
+     * @param resultMatcher    The matcher to be applied on the result of the collector.
+     * @param <T>              The type of the elements in the input stream.
+     * @param <U>              The type of the result of the {@code featureExtractor} function.
+     * @param <R>              The type of the result of the {@code collector}.
+     * @since 0.20
+     */
+    public static <T, U, R> Matcher<Stream<T>> collecting(Function<? super T, ? extends U> featureExtractor,
+                                                          Collector<? super U, ?, R> collector,
+                                                          Matcher<? super R> resultMatcher) {
+        FeatureMetadata<T> featureMetadata = FeatureMetadataResolver.resolve(featureExtractor, Function.class);
+        String featureName = featureMetadata.getFeatureName();
+        String featureDescription = TypeResolverFeatureMatcherFactory.getFeatureDescription(featureName,
+                Stream.class.getSimpleName() + " of " + featureMetadata.getDeclaringEntityName());
+        return Evaluation.matcher(Stream.class,
+                description -> description.appendText(featureDescription).appendText(" collected to ")
+                        .appendDescriptionOf(resultMatcher),
+                stream -> collectedEvaluation(stream.<U>map(featureExtractor).collect(collector),
+                        featureName + " collected ", resultMatcher));
+    }
+
+    private static <R> Evaluation collectedEvaluation(R result, String prefix, Matcher<? super R> resultMatcher) {
+        if (resultMatcher.matches(result)) {
+            return Evaluation.MATCHED;
+        }
+        return Evaluation.mismatch(description -> {
+            description.appendText(prefix);
+            resultMatcher.describeMismatch(result, description);
+        });
+    }
+
+    private static <T> Optional<List<T>> findFirst(Stream<T> stream, Predicate<? super T> predicate) {
+        // the items are wrapped because findFirst does not allow null items
+        return stream.filter(predicate).map(Collections::singletonList).findFirst();
     }
 
     private static <T, S extends BaseStream<T, S>> Iterable<T> streamToIterable(BaseStream<T, S> stream) {
-        return StreamSupport.stream(stream.spliterator(), false).collect(Collectors.toList());
+        return StreamSupport.stream(stream.spliterator(), stream.isParallel()).collect(Collectors.toList());
+    }
+
+    private static <T> Collector<T, ?, ItemsSummary<T>> summarizing(int limit, Predicate<? super T> failure) {
+        return Collector.of(() -> new ItemsSummary<>(limit, failure), ItemsSummary::accept, ItemsSummary::combine);
+    }
+
+    private static <T, S extends BaseStream<T, S>> ItemsSummary<T> summarize(BaseStream<T, S> stream) {
+        return StreamSupport.stream(stream.spliterator(), stream.isParallel())
+                .collect(summarizing(ItemsSummary.defaultLimit(), item -> false));
     }
 
-    private static <E> Matcher<Iterable<? extends E>> emptyIterable() {
-        return MatcherBuilder.<Iterable<? extends E>>of(Iterable.class)
-                .matches(it -> !it.iterator().hasNext())
+    private static <E> Matcher<ItemsSummary<E>> emptySummary() {
+        return MatcherBuilder.<ItemsSummary<E>>of(ItemsSummary.class)
+                .matches(summary -> summary.getCount() == 0)
                 .description("an empty stream")
-                .describeMismatch((it, d) -> d.appendText("was ").appendValueList("[", ",", "]", it))
+                .describeMismatch((summary, d) -> summary.describeItems(d.appendText("was "), ","))
                 .build();
     }
 
-    private static <T, R> CacheLastResultFunction<T, R> cacheResultFunction(Function<? super T, ? extends R> function) {
-        return new CacheLastResultFunction<>(function);
+    static <T, R> Function<T, R> cacheResultFunction(Function<? super T, ? extends R> function) {
+        return new EvaluationCacheFunction<>(function);
     }
 
-    private static class CacheLastResultFunction<T, R> implements Function<T, R> {
+    /**
+     * Caches the result of {@code function} for every input until the input itself is no longer reachable.
+     * A stream can be consumed only once, but a matcher needs its contents both in {@code matches} and in
+     * {@code describeMismatch}, and a retrying matcher evaluates the same stream several times.
+     * <p>
+     * The inputs are weakly referenced, so a cached value is released as soon as the evaluated stream is
+     * discarded, and the cache can be safely shared by concurrent evaluations of the same matcher.
+     */
+    private static class EvaluationCacheFunction<T, R> implements Function<T, R> {
         private final Function<? super T, ? extends R> function;
-        private boolean initialized = false;
-        private T lastInput;
-        private R lastValue;
+        private final Map<T, R> cache = new WeakHashMap<>();
 
-        private CacheLastResultFunction(Function<? super T, ? extends R> function) {
+        private EvaluationCacheFunction(Function<? super T, ? extends R> function) {
             this.function = function;
         }
 
         @Override
         public R apply(T t) {
-            if (lastInput != t || !initialized) {
-                initialized = true;
-                lastValue = function.apply(t);
-                lastInput = t;
+            synchronized (cache) {
+                if (cache.containsKey(t)) {
+                    return cache.get(t);
+                }
+            }
+            // evaluated outside the lock, so that concurrent evaluations of different inputs do not serialize
+            R value = function.apply(t);
+            synchronized (cache) {
+                cache.put(t, value);
             }
-            return lastValue;
+            return value;
         }
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+/**
+ * <p>
+ * The time source of a retry matcher, as used by
+ * {@link RetryMatchers#retry(long, java.util.concurrent.TimeUnit, RetryPolicy, Ticker, WaitStrategy, org.hamcrest.Matcher)}.
+ * </p>
+ * <p>
+ * The retry matchers use {@link #system()} by default. A {@link VirtualTime} can be used instead, together with
+ * its wait strategy, for simulating long timeouts without actually waiting.
+ * </p>
+ *
+ * @since 0.20
+ */
+@FunctionalInterface
+public interface Ticker {
+
+    /**
+     * <p>
+     * Returns the current value of the time source, in nanoseconds. Like {@link System#nanoTime()}, the value is
+     * meaningful only as a difference between two readings.
+     * </p>
+     *
+     * @return The current time in nanoseconds.
+     * @since 0.20
+     */
+    long nanoTime();
+
+    /**
+     * <p>
+     * Returns the ticker reading {@link System#nanoTime()}.
+     * </p>
+     *
+     * @return The system ticker.
+     * @since 0.20
+     */
+    static Ticker system() {
+        return System::nanoTime;
+    }
+}
@@ -31,7 +31,7 @@ class TypeResolverFeatureMatcherFactory {
         throw new java.lang.UnsupportedOperationException("This is a utility class and cannot be instantiated");
     }
 
-    private static String getArticle(String s) {
+    static String getArticle(String s) {
         boolean startsWithVowel = "AaEeIiOoUu".indexOf(s.charAt(0)) >= 0;
         return startsWithVowel ? "an" : "a";
     }
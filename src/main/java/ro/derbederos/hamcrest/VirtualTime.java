@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A deterministic virtual clock for simulating retries. It is both the {@link Ticker} and the {@link WaitStrategy}
+ * of the retry matcher: waiting does not block, it only moves the virtual time forward, so a retry with
+ * a timeout of several minutes is evaluated in milliseconds.
+ * </p>
+ * <p>
+ * The objects observed by the retry should read the same virtual time:
+ * </p>
+ * <pre>
+ * VirtualTime time = new VirtualTime();
+ * Cache cache = new Cache(time::nanoTime, Duration.ofMinutes(5));
+ * assertThat(cache, retry(10, MINUTES, RetryPolicy.fixed(30, SECONDS), time, time,
+ *         hasFeature(Cache::isExpired, equalTo(true))));
+ * </pre>
+ *
+ * @since 0.20
+ */
+public final class VirtualTime implements Ticker, WaitStrategy {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    /**
+     * <p>
+     * Creates a virtual clock starting at zero elapsed time.
+     * </p>
+     *
+     * @since 0.20
+     */
+    public VirtualTime() {
+    }
+
+    /**
+     * <p>
+     * Returns the virtual time elapsed since this clock was created, in nanoseconds.
+     * </p>
+     *
+     * @return The virtual time in nanoseconds.
+     * @since 0.20
+     */
+    @Override
+    public long nanoTime() {
+        return nanos.get();
+    }
+
+    /**
+     * <p>
+     * Moves the virtual time forward by the given duration, without waiting.
+     * </p>
+     *
+     * @param nanos The duration of the wait, in nanoseconds.
+     * @since 0.20
+     */
+    @Override
+    public void await(long nanos) {
+        this.nanos.addAndGet(Math.max(0, nanos));
+    }
+
+    /**
+     * <p>
+     * Moves the virtual time forward by the given {@code duration}.
+     * </p>
+     *
+     * @param duration The duration to be added to the virtual time.
+     * @param timeUnit The {@link TimeUnit} in which {@code duration} is represented.
+     * @since 0.20
+     */
+    public void advance(long duration, TimeUnit timeUnit) {
+        await(timeUnit.toNanos(duration));
+    }
+
+    /**
+     * <p>
+     * Returns the virtual time elapsed since this clock was created, in the given {@code timeUnit}.
+     * </p>
+     *
+     * @param timeUnit The {@link TimeUnit} of the returned value.
+     * @return The elapsed virtual time.
+     * @since 0.20
+     */
+    public long elapsed(TimeUnit timeUnit) {
+        return timeUnit.convert(nanos.get(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The implementations of the {@link WaitStrategy} factories. {@code Thread.onSpinWait()} is called through
+ * a method handle, because it does not exist on Java 8, where the spin loop runs without the hint.
+ */
+final class WaitStrategies {
+
+    static final WaitStrategy PARK = LockSupport::parkNanos;
+
+    private static final MethodHandle ON_SPIN_WAIT = onSpinWaitHandle();
+
+    private WaitStrategies() {
+    }
+
+    static WaitStrategy spinThenPark(long spinThresholdNanos) {
+        return spinThenPark(spinThresholdNanos, Ticker.system(), PARK, WaitStrategies::onSpinWait);
+    }
+
+    /**
+     * Parks until {@code spinThresholdNanos} before the deadline, and spins for the rest of the wait. The clock,
+     * the park and the spin are parameters, so the split between them can be checked in virtual time.
+     */
+    static WaitStrategy spinThenPark(long spinThresholdNanos, Ticker ticker, WaitStrategy park, Runnable spin) {
+        return nanos -> {
+            long deadline = ticker.nanoTime() + nanos;
+            if (nanos > spinThresholdNanos) {
+                park.await(nanos - spinThresholdNanos);
+            }
+            while (deadline - ticker.nanoTime() > 0 && !Thread.currentThread().isInterrupted()) {
+                spin.run();
+            }
+        };
+    }
+
+    private static void onSpinWait() {
+        if (ON_SPIN_WAIT != null) {
+            try {
+                ON_SPIN_WAIT.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static MethodHandle onSpinWaitHandle() {
+        try {
+            return MethodHandles.publicLookup()
+                    .findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
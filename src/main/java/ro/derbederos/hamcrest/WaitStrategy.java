@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * The way a retry matcher waits between two consecutive attempts, as used by
+ * {@link RetryMatchers#retry(long, TimeUnit, RetryPolicy, WaitStrategy, org.hamcrest.Matcher)}.
+ * </p>
+ * <p>
+ * Parking the thread is cheap, but the thread is woken up with a delay that depends on the operating system,
+ * usually 50 to 100 microseconds on Linux. Retries with sub-millisecond delays can use
+ * {@link #spinThenPark(long, TimeUnit)}, that parks for most of the delay and busy-spins for its end.
+ * </p>
+ *
+ * @since 0.20
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * <p>
+     * Waits for the given duration. It may return earlier if the thread is interrupted.
+     * </p>
+     *
+     * @param nanos The duration of the wait, in nanoseconds.
+     * @since 0.20
+     */
+    void await(long nanos);
+
+    /**
+     * <p>
+     * Creates a strategy that parks the thread for the whole duration of the wait. It is the default strategy.
+     * </p>
+     *
+     * @return The wait strategy.
+     * @since 0.20
+     */
+    static WaitStrategy park() {
+        return WaitStrategies.PARK;
+    }
+
+    /**
+     * <p>
+     * Creates a strategy that parks the thread, except for the last {@code spinThreshold} of the wait, when it
+     * busy-spins using {@code Thread.onSpinWait()}, if available. Waits shorter than {@code spinThreshold} are spun
+     * entirely, so they end much closer to the deadline than a park, at the cost of a busy CPU.
+     * </p>
+     * <pre>
+     * assertThat(queue, retry(10, MILLISECONDS, RetryPolicy.fixed(20, MICROSECONDS),
+     *         WaitStrategy.spinThenPark(100, MICROSECONDS), hasSize(3)));
+     * </pre>
+     *
+     * @param spinThreshold The duration at the end of every wait spent spinning.
+     * @param timeUnit      The {@link TimeUnit} in which {@code spinThreshold} is represented.
+     * @return The wait strategy.
+     * @since 0.20
+     */
+    static WaitStrategy spinThenPark(long spinThreshold, TimeUnit timeUnit) {
+        return WaitStrategies.spinThenPark(timeUnit.toNanos(spinThreshold));
+    }
+}
@@ -22,14 +22,19 @@ import org.junit.jupiter.api.Test;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static java.util.stream.Collectors.toList;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItemInArray;
 import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.lessThan;
 import static ro.derbederos.hamcrest.LambdaMatchers.*;
 import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertDescription;
 import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertMismatchDescription;
@@ -325,6 +330,69 @@ public class LambdaMatchersTest {
                 array, featureMatcher);
     }
 
+    @Test
+    public void everyItemBoundedDescription() {
+        List<Integer> list = IntStream.range(0, 1_000).boxed().collect(toList());
+        Matcher<Iterable<? super Integer>> matcher = everyItem(lessThan(997), 3);
+        assertDescription(equalTo("every item is a value less than <997>"), matcher);
+        assertMismatchDescription(equalTo("3 of 1000 items did not match, at indexes [997, 998, 999]; " +
+                        "first mismatch: <997> was equal to <997>; items: [<0>, <1>, <2>, ..., <997>, <998>, <999>] (1000 items)"),
+                list, matcher);
+    }
+
+    @Test
+    public void everyItemBoundedFailingPositions() {
+        List<Integer> list = IntStream.range(0, 100).boxed().collect(toList());
+        assertMismatchDescription(equalTo("50 of 100 items did not match, at indexes [1, 3, ... (48 more)]; " +
+                        "first mismatch: was <1>; items: [<0>, <1>, ..., <98>, <99>] (100 items)"),
+                list, everyItem(isEven(), 2));
+    }
+
+    @Test
+    public void everyItemBoundedIteratesOnceOnMismatch() {
+        List<Integer> list = IntStream.range(0, 100).boxed().collect(toList());
+        AtomicInteger iterations = new AtomicInteger();
+        Iterable<Integer> iterable = () -> {
+            iterations.incrementAndGet();
+            return list.iterator();
+        };
+        assertMismatchDescription(startsWith("50 of 100 items did not match"), iterable, everyItem(isEven(), 2));
+        assertThat(iterations.get(), equalTo(1));
+    }
+
+    @Test
+    public void everyItemBoundedShortIterable() {
+        assertThat(Arrays.asList(2, 4), everyItem(isEven(), 3));
+        assertMismatchDescription(endsWith("items: [<2>, <3>]"), Arrays.asList(2, 3), everyItem(isEven(), 3));
+    }
+
+    @Test
+    public void everyItemBoundedFeatureIterable() {
+        List<Person> list = Arrays.asList(new Person("Alice Bob", 21),
+                new Person("Ana Pop", 20),
+                new Person("Ariana G", 22));
+        assertThat(list, featureIterable(Person::getAge, everyItem(greaterThanOrEqualTo(20), 2)));
+        Matcher<Iterable<Person>> featureMatcher = featureIterable(Person::getAge, everyItem(greaterThanOrEqualTo(21), 2));
+        assertMismatchDescription(equalTo("`Person::getAge` 1 of 3 items did not match, at indexes [1]; " +
+                        "first mismatch: <20> was less than <21>; items: [<21>, <20>, <22>]"),
+                list, featureMatcher);
+    }
+
+    @Test
+    public void everyItemBoundedFeatureArray() {
+        Person[] array = {new Person("Alice Bob", 21), new Person("Ana Pop", 20)};
+        assertThat(array, featureArray(Person::getAge, everyItem(greaterThanOrEqualTo(20), 2)));
+        assertThat(array, not(featureArray(Person::getAge, everyItem(greaterThanOrEqualTo(21), 2))));
+    }
+
+    private static Matcher<Integer> isEven() {
+        return MatcherBuilder.<Integer>of(Integer.class)
+                .matches(i -> i % 2 == 0)
+                .description("an even number")
+                .describeMismatch((i, d) -> d.appendText("was ").appendValue(i))
+                .build();
+    }
+
     @Test
     public void assertFeatureSimpleTestObjectMethodReference() {
         Person p = new Person("Brutus", 21);
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.regex.Pattern;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertDescription;
+import static ro.derbederos.hamcrest.RegexMatchers.containsPatternInLinearTime;
+import static ro.derbederos.hamcrest.RegexMatchers.matchesPatternInLinearTime;
+
+public class LinearRegexTest {
+
+    private static final String[] SUPPORTED_PATTERNS = {
+            "", "a", "abc", "a|b", "ab|cd|", "a*", "a+", "a?", "a*?b", "(ab)+", "(?:ab)*c", "(?<name>a|b)c",
+            "a{3}", "a{2,}", "a{1,3}b", "a{0,2}?", "(a|ab)(c|bcd)(d*)", "(a*)*", "(a*|b)+c", ".", ".*", ".+x",
+            "[abc]", "[^abc]", "[a-z]+", "[-a]", "[a-]", "[^\\d\\s]+", "[\\w.]+@[\\w.]+", "\\d{3}-\\d{4}",
+            "\\D\\W\\S", "\\t\\n\\r\\f", "\\x41\\x{1F600}\\u00e9", "\\.\\*\\+\\?\\(\\)\\[\\]\\{\\}\\|\\\\",
+            "\\Qa.b*c\\E+", "\\Qa.b", "^abc", "\\Aabc", "abc$", "abc\\z", "^a.c$", "^$", "x😀+y", "[😀-😂]",
+            "é+", "[^é]", "((a|b)*c|d)+e?"
+    };
+
+    private static final String[] UNSUPPORTED_PATTERNS = {
+            "(a)\\1", "(?=a)", "(?!a)", "(?<=a)b", "(?<!a)b", "(?>a)", "a*+", "a++", "\\bword\\b", "\\p{L}",
+            "(?i)abc", "a^", "$a", "a|b$", "^a|b", "(^a)", "[a&&b]", "[[a]b]", "\\R", "\\h", "\\G", "\\Z", "\\0101",
+            "\\cA", "(?<name>a)\\k<name>"
+    };
+
+    private static final String[] INPUTS = {
+            "", "a", "b", "ab", "abc", "abcd", "aaa", "aaaa", "aab", "aaab", "cd", "abcde", "xyz", "123-4567",
+            "12-345", "a.b*c", "a.b*cc", "a.b", "abc\n", "abc\r\n", "abc\r", "abc\u0085", "abc\n\n", "\n", "a\nc",
+            "a\rc", "abc ", "x😀😀y", "😁", "ééé", "ê", "john.doe@example.com", "\t\n\r\f", "A😀é",
+            ".*+?()[]{}|\\", "%#!", "a.cb", "aaaaaaaaaa!", "_-_", "ab ab", "cde", "ce", "dd"
+    };
+
+    @Test
+    public void corpusMatchesLikeTheJdkEngine() {
+        int[] flags = {0, Pattern.DOTALL, Pattern.UNIX_LINES, Pattern.MULTILINE};
+        for (String regex : SUPPORTED_PATTERNS) {
+            for (int flag : flags) {
+                Pattern pattern = Pattern.compile(regex, flag);
+                LinearRegex linearRegex = LinearRegex.compile(pattern);
+                if ((flag & Pattern.MULTILINE) != 0 && (regex.startsWith("^") || regex.startsWith("\\A") ||
+                        regex.endsWith("$") || regex.endsWith("\\z"))) {
+                    assertThat(regex, linearRegex, nullValue());
+                    continue;
+                }
+                assertThat(regex, linearRegex, notNullValue());
+                for (String input : INPUTS) {
+                    String message = "/" + regex + "/" + flag + " on \"" + input + "\"";
+                    assertEquals(pattern.matcher(input).matches(), linearRegex.matches(input), message);
+                    assertEquals(pattern.matcher(input).find(), linearRegex.find(input), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void literalFlag() {
+        LinearRegex linearRegex = LinearRegex.compile(Pattern.compile("a.(b)*", Pattern.LITERAL));
+        assertThat(linearRegex.matches("a.(b)*"), equalTo(true));
+        assertThat(linearRegex.find("xa.(b)*x"), equalTo(true));
+        assertThat(linearRegex.matches("ax(b)*"), equalTo(false));
+    }
+
+    @Test
+    public void unsupportedPatterns() {
+        for (String regex : UNSUPPORTED_PATTERNS) {
+            assertThat(regex, LinearRegex.compile(Pattern.compile(regex)), nullValue());
+        }
+        assertThat(LinearRegex.compile(Pattern.compile("abc", Pattern.CASE_INSENSITIVE)), nullValue());
+        assertThat(LinearRegex.compile(Pattern.compile("abc", Pattern.COMMENTS)), nullValue());
+        assertThat(LinearRegex.compile(Pattern.compile("a{1000}")), notNullValue());
+        assertThat(LinearRegex.compile(Pattern.compile("(a{100}){200}")), nullValue());
+    }
+
+    @Test
+    @Timeout(5)
+    public void catastrophicBacktrackingPatternsRunInLinearTime() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            input.append('a');
+        }
+        input.append('!');
+        // the JDK engine needs more than a second for this pattern on just 28 characters
+        LinearRegex linearRegex = LinearRegex.compile(Pattern.compile("(.*a){12}"));
+        assertThat(linearRegex.matches(input), equalTo(false));
+        assertThat(linearRegex.find(input), equalTo(true));
+        assertThat(LinearRegex.compile(Pattern.compile("(a|aa)+b")).find(input), equalTo(false));
+        assertThat(LinearRegex.compile(Pattern.compile("^(a+)+$")).find(input), equalTo(false));
+    }
+
+    @Test
+    public void linearTimeMatchers() {
+        assertThat("abc123", matchesPatternInLinearTime(Pattern.compile("[a-c]+\\d{3}")));
+        assertThat("abc123", not(matchesPatternInLinearTime(Pattern.compile("[a-c]+\\d{4}"))));
+        assertThat("xxabc123xx", containsPatternInLinearTime(Pattern.compile("c\\d+")));
+        // unsupported patterns are evaluated by the JDK engine
+        assertThat("abab", matchesPatternInLinearTime(Pattern.compile("(ab)\\1")));
+        assertDescription(equalTo("a string matching pattern \"\\\\d+\""),
+                matchesPatternInLinearTime(Pattern.compile("\\d+")));
+        assertDescription(equalTo("a string containing pattern \"\\\\d+\""),
+                containsPatternInLinearTime(Pattern.compile("\\d+")));
+    }
+
+    @Test
+    public void dfaCacheIsSharedByThreads() throws Exception {
+        LinearRegex linearRegex = LinearRegex.compile(Pattern.compile("(a|b)*abb(a|b){3}"));
+        String[] inputs = {"ababbaba", "abbab", "bbbbbabbaaa", "aaaaaa"};
+        boolean[] expected = new boolean[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            expected[i] = Pattern.compile("(a|b)*abb(a|b){3}").matcher(inputs[i]).matches();
+        }
+        Thread[] threads = new Thread[4];
+        Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 20_000; i++) {
+                        assertEquals(expected[i % inputs.length], linearRegex.matches(inputs[i % inputs.length]));
+                    }
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(failure[0], nullValue());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.Test;
+import ro.derbederos.hamcrest.LambdaMatchersTest.Person;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertDescription;
+import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertMismatchDescription;
+import static ro.derbederos.hamcrest.OrderingMatchers.*;
+
+public class OrderingMatchersTest {
+
+    private final List<Person> people = Arrays.asList(new Person("Alice Bob", 21),
+            new Person("Ana Pop", 23),
+            new Person("Ariana G", 22));
+
+    @Test
+    public void iterableSortedBy() {
+        assertThat(people, sortedBy(Person::getName));
+        assertThat(people, not(sortedBy(Person::getAge)));
+        assertThat(Collections.emptyList(), sortedBy(Person::getAge));
+    }
+
+    @Test
+    public void iterableSortedByDescription() {
+        Matcher<Iterable<Person>> matcher = sortedBy(Person::getAge);
+        assertDescription(equalTo("an Iterable of Person sorted by `Person::getAge`"), matcher);
+        assertMismatchDescription(equalTo("items at indexes 1 and 2 are out of order: <23> followed by <22>"),
+                people, matcher);
+    }
+
+    @Test
+    public void iterableSortedByComparator() {
+        List<String> list = Arrays.asList("alice", "Bob", "cecil");
+        assertThat(list, sortedBy(String::toString, String.CASE_INSENSITIVE_ORDER));
+        assertThat(list, not(sortedBy(String::toString)));
+    }
+
+    @Test
+    public void iterableStrictlyIncreasing() {
+        assertThat(Arrays.asList(1, 2, 3), strictlyIncreasing());
+        assertMismatchDescription(equalTo("items at indexes 1 and 2 are out of order: <2> followed by <2>"),
+                Arrays.asList(1, 2, 2), strictlyIncreasing());
+        assertDescription(equalTo("an Iterable in strictly increasing order"), strictlyIncreasing());
+    }
+
+    @Test
+    public void iterableSortedDescending() {
+        assertThat(Arrays.asList(3, 2, 2, 1), sortedDescending());
+        assertThat(Arrays.asList(3, 1, 2), not(sortedDescending()));
+        assertDescription(equalTo("an Iterable sorted in descending order"), sortedDescending());
+    }
+
+    @Test
+    public void arraySorted() {
+        Person[] array = people.toArray(new Person[0]);
+        assertThat(array, arraySortedBy(Person::getName));
+        assertThat(new Integer[]{1, 2, 3}, arrayStrictlyIncreasing());
+        assertThat(new Integer[]{3, 2, 2}, arraySortedDescending());
+        assertDescription(equalTo("an Object[] of Person sorted by `Person::getAge`"), arraySortedBy(Person::getAge));
+        assertMismatchDescription(equalTo("items at indexes 1 and 2 are out of order: <23> followed by <22>"),
+                array, arraySortedBy(Person::getAge));
+    }
+
+    @Test
+    public void streamSorted() {
+        assertThat(people.stream(), streamSortedBy(Person::getName));
+        assertThat(Stream.of(1, 2, 3), streamStrictlyIncreasing());
+        assertThat(Stream.of(3, 2, 2), streamSortedDescending());
+        assertDescription(equalTo("a Stream of Person sorted by `Person::getAge`"), streamSortedBy(Person::getAge));
+        assertMismatchDescription(equalTo("items at indexes 0 and 1 are out of order: <3> followed by <4>"),
+                Stream.of(3, 4, 2), streamSortedDescending());
+    }
+
+    @Test
+    public void primitiveArraySorted() {
+        assertThat(new int[]{1, 1, 2}, sortedIntArray());
+        assertThat(new int[]{1, 1, 2}, not(strictlyIncreasingIntArray()));
+        assertThat(new int[]{3, 2, 2}, sortedDescendingIntArray());
+        assertThat(new long[]{1, 2, 3}, strictlyIncreasingLongArray());
+        assertThat(new long[]{1, 2, 2}, sortedLongArray());
+        assertThat(new long[]{2, 1}, sortedDescendingLongArray());
+        assertThat(new double[]{0.5, 1.5}, strictlyIncreasingDoubleArray());
+        assertThat(new double[]{1.5, 0.5}, sortedDescendingDoubleArray());
+        assertThat(new double[]{0.5, Double.NaN}, sortedDoubleArray());
+    }
+
+    @Test
+    public void primitiveArraySortedDescription() {
+        assertDescription(equalTo("an int[] sorted in ascending order"), sortedIntArray());
+        assertDescription(equalTo("a long[] in strictly increasing order"), strictlyIncreasingLongArray());
+        assertMismatchDescription(equalTo("items at indexes 2 and 3 are out of order: <5> followed by <4>"),
+                new int[]{1, 2, 5, 4}, sortedIntArray());
+        assertMismatchDescription(equalTo("items at indexes 0 and 1 are out of order: <0.5> followed by <1.5>"),
+                new double[]{0.5, 1.5}, sortedDescendingDoubleArray());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertDescription;
+import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertMismatchDescription;
+import static ro.derbederos.hamcrest.RegexMatchers.containsAnyPattern;
+import static ro.derbederos.hamcrest.RegexMatchers.matchesAnyPattern;
+
+public class PatternSetTest {
+
+    private static final String[] PATTERNS = {
+            "abc", "a+bc", "ab?c", "ab*cd", "a{2}b", "a{0,2}bc", "x(ab|cd)y", "(?:ab)+c", "a|bc", "[abc]de",
+            "\\d+-\\d+", "id=\\d+;", "\\.txt$", "^GET /", "\\Qa.b\\E?c", "\\Qa.b\\E", "\\x41BC", "\\u0041BC",
+            "\\0101BC", "\\p{L}bc", "\\p{Lu}BC", "(a)\\1bc", "(?i)abc", "a(?i)bc", "(?i:a)bc", "\\tab", "a\\.c",
+            "[\\]]bc", "[]a]bc", "[^]]bc", "[a[b]]cd", "ab\\bcd", "ab(?=c)c", "(?<n>a)\\k<n>b", "\\ca1b", "a😀+b",
+            "😀bc", "\\Q\\E", "}ab", "]ab", ".*abc.*", "a.c", "\\b{g}ab", "ab{1,}c", "ab{0}c", "ab++c", "ab*?c",
+            "(?x)a b", "a\\N{LATIN SMALL LETTER B}c"
+    };
+
+    private static final String[] INPUTS = {
+            "", "abc", "aabc", "ac", "abbbcd", "acd", "aab", "bc", "xaby", "xcdy", "ababc", "de", "bde", "12-34",
+            "id=7;", "file.txt", "GET /index", "a.bc", "a.b", "ac", "ABC", "\u0001bc", "bbc", "BBC", "aabc", "ABc",
+            "aBC", "\tab", "a.c", "]bc", "abc", "cd", "acd", "abcd", "ab cd", "aab", "\u00011b", "a😀😀b", "😀bc",
+            "}ab", "]ab", "xxabcxx", "axc", "abbbbc", "ab", "a b", "ab", "abc"
+    };
+
+    @Test
+    public void requiredLiteralsAreContainedInEveryMatch() {
+        for (String regex : PATTERNS) {
+            Pattern pattern = Pattern.compile(regex);
+            String literal = LiteralIndex.requiredLiteral(regex, 0);
+            for (String input : INPUTS) {
+                java.util.regex.Matcher matcher = pattern.matcher(input);
+                while (literal != null && matcher.find()) {
+                    assertThat(regex + " / " + input, matcher.group().contains(literal), equalTo(true));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void requiredLiteral() {
+        assertEquals("abc", LiteralIndex.requiredLiteral("abc", 0));
+        assertEquals("cd", LiteralIndex.requiredLiteral("ab*cd", 0));
+        assertEquals("id=", LiteralIndex.requiredLiteral("id=\\d+;", 0));
+        assertEquals("a.b", LiteralIndex.requiredLiteral("\\Qa.b\\E", 0));
+        assertEquals("ABC", LiteralIndex.requiredLiteral("\\QAB\\EC", 0));
+        assertEquals(" logged in", LiteralIndex.requiredLiteral("user (\\w+) logged in", 0));
+        assertEquals("a|b", LiteralIndex.requiredLiteral("a|b", Pattern.LITERAL));
+        assertThat(LiteralIndex.requiredLiteral("a|bc", 0), nullValue());
+        assertThat(LiteralIndex.requiredLiteral("(?i)abc", 0), nullValue());
+        assertThat(LiteralIndex.requiredLiteral("abc", Pattern.CASE_INSENSITIVE), nullValue());
+        assertThat(LiteralIndex.requiredLiteral("(a)\\1bc", 0), nullValue());
+        assertThat(LiteralIndex.requiredLiteral("\\d+", 0), nullValue());
+    }
+
+    @Test
+    public void patternSetFindsTheSamePatternsAsTheRegexEngine() {
+        PatternSet patternSet = PatternSet.compile(PATTERNS);
+        for (String input : INPUTS) {
+            assertEquals(firstIndex(input, false), patternSet.matchingIndex(input), input);
+            assertEquals(firstIndex(input, true), patternSet.containedIndex(input), input);
+        }
+    }
+
+    @Test
+    public void patternSetEvaluatesOnlyTheCandidatePatterns() {
+        List<String> regexes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            regexes.add("service-" + i + " started in \\d+ ms");
+        }
+        regexes.add("(?i)shutting down");
+        PatternSet patternSet = PatternSet.compile(regexes);
+        assertEquals(2001, patternSet.size());
+        assertEquals(2000, patternSet.indexedPatternCount());
+        assertEquals(1234, patternSet.matchingIndex("service-1234 started in 50 ms"));
+        assertEquals(2000, patternSet.containedIndex("SHUTTING DOWN now"));
+        assertEquals(-1, patternSet.containedIndex("service-1234 stopped"));
+        assertThat(patternSet.candidates("service-1234 started in 50 ms").cardinality(), lessThanOrEqualTo(2));
+        assertThat(Arrays.asList("service-1 started in 1 ms", "service-1999 started in 20 ms"),
+                everyItem(matchesAnyPattern(patternSet)));
+    }
+
+    @Test
+    public void patternSetMatchersDescription() {
+        PatternSet patternSet = PatternSet.compile("a+", "b[0-9]");
+        Matcher<CharSequence> matchesAny = matchesAnyPattern(patternSet);
+        assertDescription(equalTo("a string matching any of the 2 patterns of a pattern set"), matchesAny);
+        assertDescription(equalTo("a string containing any of the 2 patterns of a pattern set"),
+                containsAnyPattern(patternSet));
+        assertMismatchDescription(equalTo("was \"ab1\", which matched none of the 2 patterns"), "ab1", matchesAny);
+        assertMismatchDescription(equalTo("was \"c\", which contained none of the 2 patterns"), "c",
+                containsAnyPattern(patternSet));
+        assertThat("xb1", containsAnyPattern(patternSet));
+        assertThat("xb", not(containsAnyPattern(patternSet)));
+    }
+
+    private static int firstIndex(String input, boolean find) {
+        for (int i = 0; i < PATTERNS.length; i++) {
+            java.util.regex.Matcher matcher = Pattern.compile(PATTERNS[i]).matcher(input);
+            if (find ? matcher.find() : matcher.matches()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static ro.derbederos.hamcrest.LambdaMatchers.hasFeature;
+import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertDescription;
+import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertMismatchDescription;
+import static ro.derbederos.hamcrest.PrimitiveStreamMatchers.*;
+
+public class PrimitiveStreamMatchersTest {
+
+    private static boolean isEven(int value) {
+        return value % 2 == 0;
+    }
+
+    @Test
+    public void intStreamAllMatch() {
+        assertThat(IntStream.of(2, 4, 6), allInts(i -> i % 2 == 0));
+        assertThat(IntStream.of(2, 3, 6), not(allInts(i -> i % 2 == 0)));
+        assertThat(IntStream.empty(), allInts(i -> false));
+    }
+
+    @Test
+    public void intStreamAllMatchDescription() {
+        Matcher<IntStream> matcher = allInts(PrimitiveStreamMatchersTest::isEven);
+        assertDescription(equalTo("an IntStream where every item matches `PrimitiveStreamMatchersTest::isEven`"),
+                matcher);
+        assertMismatchDescription(equalTo("item <3> at index 1 did not match"), IntStream.of(2, 3, 6), matcher);
+    }
+
+    @Test
+    public void intStreamAnyMatch() {
+        assertThat(IntStream.of(1, 3, 4), anyInt(i -> i % 2 == 0));
+        assertThat(IntStream.empty(), not(anyInt(i -> true)));
+    }
+
+    @Test
+    public void intStreamAnyMatchDescription() {
+        Matcher<IntStream> matcher = anyInt(PrimitiveStreamMatchersTest::isEven);
+        assertDescription(equalTo("an IntStream having an item that matches `PrimitiveStreamMatchersTest::isEven`"),
+                matcher);
+        assertMismatchDescription(equalTo("none of the 3 items matched"), IntStream.of(1, 3, 5), matcher);
+    }
+
+    @Test
+    public void intStreamInRange() {
+        assertThat(IntStream.rangeClosed(1, 10), intsInRange(1, 10));
+        assertThat(IntStream.rangeClosed(0, 10), not(intsInRange(1, 10)));
+    }
+
+    @Test
+    public void intStreamInRangeDescription() {
+        Matcher<IntStream> matcher = intsInRange(1, 10);
+        assertDescription(equalTo("an IntStream where every item is between <1> and <10>"), matcher);
+        assertMismatchDescription(equalTo("item <11> at index 2 was out of range"), IntStream.of(1, 5, 11), matcher);
+    }
+
+    @Test
+    public void intStreamSorted() {
+        assertThat(IntStream.of(1, 1, 2, 5), sortedInts());
+        assertThat(IntStream.empty(), sortedInts());
+        assertThat(IntStream.of(1, 3, 2), not(sortedInts()));
+    }
+
+    @Test
+    public void intStreamSortedDescription() {
+        Matcher<IntStream> matcher = sortedInts();
+        assertDescription(equalTo("an IntStream sorted in ascending order"), matcher);
+        assertMismatchDescription(equalTo("item <2> at index 2 was less than the previous item <3>"),
+                IntStream.of(1, 3, 2), matcher);
+    }
+
+    @Test
+    public void intStreamCount() {
+        assertThat(IntStream.range(0, 10), intCount(equalTo(10L)));
+        assertThat(IntStream.range(0, 10).filter(i -> i > 4), intCount(equalTo(5L)));
+    }
+
+    @Test
+    public void intStreamCountDescription() {
+        Matcher<IntStream> matcher = intCount(equalTo(3L));
+        assertDescription(equalTo("an IntStream with count <3L>"), matcher);
+        assertMismatchDescription(equalTo("count was <2L>"), IntStream.of(1, 2), matcher);
+    }
+
+    @Test
+    public void intStreamStatistics() {
+        assertThat(IntStream.of(1, 5, 3), intStatistics(hasFeature(IntSummaryStatistics::getMax, equalTo(5))));
+    }
+
+    @Test
+    public void intStreamStatisticsDescription() {
+        Matcher<IntStream> matcher = intStatistics(hasFeature(IntSummaryStatistics::getSum, equalTo(10L)));
+        assertDescription(equalTo("an IntStream with summary statistics " +
+                "an IntSummaryStatistics having `IntSummaryStatistics::getSum` <10L>"), matcher);
+        assertMismatchDescription(equalTo("summary statistics  `IntSummaryStatistics::getSum` was <9L>"),
+                IntStream.of(1, 5, 3), matcher);
+    }
+
+    @Test
+    public void longStreamMatchers() {
+        assertThat(LongStream.of(2, 4), allLongs(l -> l % 2 == 0));
+        assertThat(LongStream.of(1, 4), anyLong(l -> l % 2 == 0));
+        assertThat(LongStream.range(0, 100), longsInRange(0, 99));
+        assertThat(LongStream.of(1, 2, 2), sortedLongs());
+        assertThat(LongStream.range(0, 100).filter(l -> l % 2 == 0), longCount(equalTo(50L)));
+        assertThat(LongStream.of(1, 2, 3), longStatistics(hasFeature(LongSummaryStatistics::getSum, equalTo(6L))));
+    }
+
+    @Test
+    public void longStreamMatchersDescription() {
+        assertMismatchDescription(equalTo("item <100L> at index 1 was out of range"),
+                LongStream.of(1, 100), longsInRange(0, 99));
+        assertMismatchDescription(equalTo("item <1L> at index 2 was less than the previous item <2L>"),
+                LongStream.of(1, 2, 1), sortedLongs());
+    }
+
+    @Test
+    public void doubleStreamMatchers() {
+        assertThat(DoubleStream.of(0.5, 1.5), allDoubles(d -> d > 0));
+        assertThat(DoubleStream.of(-0.5, 1.5), anyDouble(d -> d > 0));
+        assertThat(DoubleStream.of(0.5, 1.5), doublesInRange(0, 2));
+        assertThat(DoubleStream.of(0.5, Double.NaN), not(doublesInRange(0, 2)));
+        assertThat(DoubleStream.of(0.5, 0.5, 1.5), sortedDoubles());
+        assertThat(DoubleStream.generate(() -> 1.0).limit(5), doubleCount(equalTo(5L)));
+        assertThat(DoubleStream.of(1.5, 2.5),
+                doubleStatistics(hasFeature(DoubleSummaryStatistics::getAverage, greaterThan(1.9))));
+    }
+
+    @Test
+    public void doubleStreamMatchersDescription() {
+        assertMismatchDescription(equalTo("item <0.5> at index 2 was less than the previous item <1.5>"),
+                DoubleStream.of(0.5, 1.5, 0.5), sortedDoubles());
+    }
+}
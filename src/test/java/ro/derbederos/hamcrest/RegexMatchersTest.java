@@ -17,14 +17,49 @@
 package ro.derbederos.hamcrest;
 
 import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertDescription;
 import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertMismatchDescription;
 import static ro.derbederos.hamcrest.RegexMatchers.*;
@@ -118,4 +153,525 @@ public class RegexMatchersTest {
     public void checksIfStringContainsAllPatterns() {
         assertThat("asjbclkjbxhui", allOf(containsAllPatterns("asj", "lkj", "jbx"), not(containsAllPatterns("bcl", "ff"))));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void matchesAnyPatternDescription() {
+        Matcher<CharSequence> regexMatcher = matchesAnyPattern("a+", "b(c)+");
+        assertDescription(equalTo("(a string matching pattern \"a+\" or a string matching pattern \"b(c)+\")"),
+                regexMatcher);
+        assertMismatchDescription(equalTo("was \"abc\", which matched none of the 2 patterns"), "abc", regexMatcher);
+    }
+
+    @Test
+    public void containsAnyPatternDescription() {
+        Matcher<CharSequence> regexMatcher = containsAnyPattern("x(y)", "(z)+", "c");
+        assertDescription(equalTo("(a string containing pattern \"x(y)\" or a string containing pattern \"(z)+\" " +
+                "or a string containing pattern \"c\")"), regexMatcher);
+        assertMismatchDescription(equalTo("was \"abd\", which contained none of the 3 patterns"), "abd", regexMatcher);
+    }
+
+    @Test
+    public void anyPatternWithGroupsAndInlineFlags() {
+        assertThat("BB", matchesAnyPattern("(a)\\1", "(?i)(b)b"));
+        assertThat("aa", matchesAnyPattern("(?i)(b)b", "(a)\\1"));
+        assertThat("Ab", not(matchesAnyPattern("a(?i)b", "(?i)(c)")));
+        assertThat("xCy", containsAnyPattern("a(?i)b", "(?i)(c)"));
+        assertThat("a.b", containsAnyPattern("\\Q.b", "z"));
+        assertThat("x-y", containsAnyPattern("(?<first>x)-", "(?<first>y)"));
+    }
+
+    @Test
+    public void patternAlternationCombinesSafePatterns() {
+        PatternAlternation alternation = PatternAlternation.of(Arrays.asList("(a)(b)", "c(?<d>d)", "e"), 0);
+        assertThat(alternation.isCombined(), equalTo(true));
+        assertThat(alternation.matchingIndex("ab"), equalTo(0));
+        assertThat(alternation.matchingIndex("cd"), equalTo(1));
+        assertThat(alternation.matchingIndex("e"), equalTo(2));
+        assertThat(alternation.matchingIndex("abe"), equalTo(-1));
+        assertThat(alternation.containedIndex("xxexcd"), equalTo(2));
+        assertThat(PatternAlternation.of(Arrays.asList("(a)\\1", "b"), 0).isCombined(), equalTo(false));
+    }
+
+    @Test
+    public void containsAllPatternsDescription() {
+        Matcher<CharSequence> regexMatcher = containsAllPatterns("a+", "(x)", "b", "y");
+        assertDescription(equalTo("(a string containing pattern \"a+\" and a string containing pattern \"(x)\" " +
+                "and a string containing pattern \"b\" and a string containing pattern \"y\")"), regexMatcher);
+        assertMismatchDescription(equalTo("was \"aab\", which did not contain 2 of the 4 patterns: \"(x)\", \"y\""),
+                "aab", regexMatcher);
+    }
+
+    @Test
+    public void containsAllPatternsFindsOverlappingPatterns() {
+        assertThat("abcd", containsAllPatterns("abc", "bcd", "ab", "b", "d$", "^a", "(?<=c)d"));
+        assertThat("abcd", not(containsAllPatterns("abc", "bcd", "^b")));
+        assertThat("xyz", containsAllPatterns("x", "", "$"));
+        assertThat("x-y", containsAllPatterns("(?<first>x)-", "(?<first>y)", "(-)\\1?"));
+    }
+
+    @Test
+    public void patternAlternationFindsSameIndexesAsSeparateSearches() {
+        List<String> regexes = Arrays.asList("a", "ab", "b+", "(?i)C", "\\bd", "d\\b", "^e", "e$", "(?<=f)g", "h(?=i)",
+                "[0-9]{2}", "x|y");
+        PatternAlternation alternation = PatternAlternation.of(regexes, 0);
+        assertThat(alternation.isCombined(), equalTo(true));
+        String[] inputs = {"", "a", "abc", "bbb", "dd d", "ed e", "fgfhhi", "hi12", "xyz", "Cab", "e", "hhi"};
+        for (String input : inputs) {
+            BitSet expected = new BitSet();
+            for (int i = 0; i < regexes.size(); i++) {
+                if (Pattern.compile(regexes.get(i)).matcher(input).find()) {
+                    expected.set(i);
+                }
+            }
+            assertEquals(expected, alternation.containedIndexes(input), input);
+        }
+    }
+
+    @Test
+    public void literalPatternsDetection() {
+        assertThat(LiteralSearch.literal("abc", 0), equalTo("abc"));
+        assertThat(LiteralSearch.literal("a\\.b\\*c\\\\", Pattern.MULTILINE), equalTo("a.b*c\\"));
+        assertThat(LiteralSearch.literal("a.b", 0), equalTo(null));
+        assertThat(LiteralSearch.literal("a\\d", 0), equalTo(null));
+        assertThat(LiteralSearch.literal("abc", Pattern.CASE_INSENSITIVE), equalTo(null));
+    }
+
+    @Test
+    public void literalPatternsBehaveLikeTheRegexEngine() {
+        String[] regexes = {"", "abc", "a\\.c", ".*", "abc.*", ".*abc", ".*abc.*", "^abc", "^abc.*", "abc\\.*",
+                "abc\\\\.*", "abcdefghij", ".*abcdefghij.*"};
+        int[] flags = {0, Pattern.DOTALL, Pattern.UNIX_LINES, Pattern.MULTILINE, Pattern.LITERAL};
+        String[] inputs = {"", "abc", "abcd", "xabc", "xabcx", "a.c", "abc\n", "\nabc", "x\rabc\u2028x", "abc.",
+                "abc\\", "abc\\x", "ab", "x\nabc\nx", "abc\nxabc", "ababcdefghijx", "abcdefghi abcdefghij",
+                ".*abc.*", "abc\u0085"};
+        for (String regex : regexes) {
+            for (int flag : flags) {
+                Pattern pattern = Pattern.compile(regex, flag);
+                Predicate<CharSequence> matches = LiteralSearch.matchesPredicate(pattern);
+                Predicate<CharSequence> find = LiteralSearch.findPredicate(pattern);
+                for (String input : inputs) {
+                    String message = "/" + regex + "/" + flag + " on \"" + input + "\"";
+                    boolean expectedMatches = pattern.matcher(input).matches();
+                    boolean expectedFind = pattern.matcher(input).find();
+                    assertEquals(expectedMatches, matches.test(input), message);
+                    assertEquals(expectedMatches, matches.test(new StringBuilder(input)), message);
+                    assertEquals(expectedFind, find.test(input), message);
+                    assertEquals(expectedFind, find.test(new StringBuilder(input)), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void literalSearchInLongCharSequence() {
+        String needle = "needle-in-a-haystack";
+        StringBuilder haystack = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            haystack.append("needle-in-a-haystac").append((char) ('0' + i % 10)).append((char) (0x100 + i));
+        }
+        assertThat(haystack, not(containsPattern(needle)));
+        haystack.append(needle);
+        assertThat(haystack, containsPattern(needle));
+        assertThat(haystack, containsPattern(Pattern.compile(needle, Pattern.LITERAL)));
+        assertThat(haystack, matchesPattern(".*" + needle));
+    }
+
+    @Test
+    public void reusableMatcherIsReentrant() {
+        ReusableMatcher reusableMatcher = new ReusableMatcher(Pattern.compile("a+(b+)"));
+        java.util.regex.Matcher outer = reusableMatcher.acquire("aabb");
+        assertThat(outer.matches(), equalTo(true));
+        assertThat(reusableMatcher.matches("ab"), equalTo(true));
+        assertThat(reusableMatcher.find("xxabx"), equalTo(true));
+        assertThat(outer.group(1), equalTo("bb"));
+        reusableMatcher.release(outer);
+        assertThat(reusableMatcher.acquire("c"), sameInstance(outer));
+    }
+
+    @Test
+    public void regexMatchersDoNotAllocatePerInput() throws Exception {
+        // accessed reflectively, the module does not read java.management
+        Object threadMXBean = Class.forName("java.lang.management.ManagementFactory")
+                .getMethod("getThreadMXBean").invoke(null);
+        Class<?> allocationBeanType;
+        try {
+            allocationBeanType = Class.forName("com.sun.management.ThreadMXBean");
+        } catch (ClassNotFoundException e) {
+            allocationBeanType = null;
+        }
+        assumeTrue(allocationBeanType != null && allocationBeanType.isInstance(threadMXBean));
+        assumeTrue((Boolean) allocationBeanType.getMethod("isThreadAllocatedMemoryEnabled").invoke(threadMXBean));
+        java.lang.reflect.Method allocatedBytes = allocationBeanType.getMethod("getThreadAllocatedBytes", long.class);
+        Matcher<String> matchesMatcher = matchesPattern("[a-z]+(\\d+)");
+        Matcher<String> containsMatcher = containsPattern("(\\d)[a-z]");
+        String[] inputs = {"abc123", "xyz", "def4g56", "123"};
+        int iterations = 100_000;
+        int matched = 0;
+        for (int i = 0; i < iterations; i++) {
+            matched += evaluate(matchesMatcher, containsMatcher, inputs[i % inputs.length]);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = (Long) allocatedBytes.invoke(threadMXBean, threadId);
+        for (int i = 0; i < iterations; i++) {
+            matched += evaluate(matchesMatcher, containsMatcher, inputs[i % inputs.length]);
+        }
+        long allocated = (Long) allocatedBytes.invoke(threadMXBean, threadId) - before;
+        assertThat(matched, equalTo(iterations));
+        // a new java.util.regex.Matcher per input would allocate well over 100 bytes per evaluation
+        assertThat(allocated, lessThanOrEqualTo(iterations * 4L));
+    }
+
+    private static int evaluate(Matcher<String> matchesMatcher, Matcher<String> containsMatcher, String input) {
+        return (matchesMatcher.matches(input) ? 1 : 0) + (containsMatcher.matches(input) ? 1 : 0);
+    }
+
+    @Test
+    public void fileContainsPatternOnMappedAsciiFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("ascii.log");
+        Files.write(file, "first line\nStarted in 123 ms\nlast line".getBytes(StandardCharsets.US_ASCII));
+        assertThat(file, fileContainsPattern(Pattern.compile("Started in \\d+ ms")));
+        assertThat(file, fileContainsPattern(Pattern.compile("^last line$", Pattern.MULTILINE)));
+        Matcher<Path> regexMatcher = fileContainsPattern(Pattern.compile("Stopped"));
+        assertDescription(equalTo("a file containing pattern \"Stopped\""), regexMatcher);
+        assertMismatchDescription(equalTo("file <" + file + "> did not contain it in 38 characters"),
+                file, regexMatcher);
+    }
+
+    @Test
+    public void fileContainsPatternOnDecodedFile(@TempDir Path directory) throws IOException {
+        Path utf8File = directory.resolve("utf8.log");
+        Files.write(utf8File, "ăîșț\nvaloare=42\n".getBytes(StandardCharsets.UTF_8));
+        assertThat(utf8File, fileContainsPattern(Pattern.compile("ăî.ț\\nvaloare=\\d+$", Pattern.MULTILINE)));
+        assertThat(utf8File, not(fileContainsPattern(Pattern.compile("valoare=43"))));
+        Path latin1File = directory.resolve("latin1.log");
+        Files.write(latin1File, "caf\u00e9 cr\u00e8me".getBytes(StandardCharsets.ISO_8859_1));
+        assertThat(latin1File, fileContainsPattern(Pattern.compile("caf\u00e9 cr\u00e8me"), StandardCharsets.ISO_8859_1));
+        assertThat(latin1File, not(fileContainsPattern(Pattern.compile("caf\u00e9"))));
+    }
+
+    @Test
+    public void fileContainsPatternOnMissingFile(@TempDir Path directory) {
+        Path file = directory.resolve("missing.log");
+        Matcher<Path> regexMatcher = fileContainsPattern(Pattern.compile("a"));
+        assertMismatchDescription(startsWith("file <" + file + "> could not be read: java.nio.file.NoSuchFileException"),
+                file, regexMatcher);
+    }
+
+    @Test
+    public void readerContainsPattern() {
+        Matcher<Reader> regexMatcher = RegexMatchers.readerContainsPattern(Pattern.compile("b+c"));
+        assertThat(new StringReader("aabbbc"), regexMatcher);
+        assertDescription(equalTo("a reader containing pattern \"b+c\""), regexMatcher);
+        assertMismatchDescription(equalTo("reader did not contain it in 5 characters"), new StringReader("aabbb"),
+                regexMatcher);
+    }
+
+    @Test
+    public void slidingWindowSearchBehavesLikeTheRegexEngine() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 300_000; i++) {
+            text.append("line ").append(i).append(i % 7 == 0 ? " alpha" : " beta").append('\n');
+        }
+        text.append("the end");
+        String input = text.toString();
+        String[] regexes = {"line 1234 alpha", "line 299\\d+ beta\\nline", "^line 0 alpha", "^line 1 beta",
+                "^line 12 beta$", "(?m)^line 12 beta$", "the end$", "the en$", "the end\\n", "(?<=alpha\\n)line 29 ",
+                "\\bline 99999\\b", "line \\d{5} (?!alpha|beta)", "\\Athe", "line 15000 beta\\n(?:[^\\n]*\\n){40}line"};
+        for (String regex : regexes) {
+            Pattern pattern = Pattern.compile(regex);
+            long expected = pattern.matcher(input).find() ? -1 : input.length();
+            assertEquals(expected, LargeInputSearch.find(pattern, new StringReader(input), 1 << 12), regex);
+            assertEquals(expected, LargeInputSearch.find(pattern, tricklingReader(input), 1 << 12), regex);
+        }
+    }
+
+    private static Reader tricklingReader(String input) {
+        return new FilterReader(new StringReader(input)) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 7));
+            }
+        };
+    }
+
+    @Test
+    public void bufferContainsPattern() {
+        CharBuffer buffer = CharBuffer.wrap("skipped abcd");
+        buffer.position(8);
+        assertThat(buffer, RegexMatchers.bufferContainsPattern(Pattern.compile("^abc")));
+        assertThat(buffer, not(RegexMatchers.bufferContainsPattern(Pattern.compile("skipped"))));
+        assertThat(buffer.position(), equalTo(8));
+        assertMismatchDescription(equalTo("buffer did not contain it in 4 characters"), buffer,
+                RegexMatchers.bufferContainsPattern(Pattern.compile("x")));
+    }
+
+    @Test
+    public void bytesMatchPattern() {
+        byte[] frame = "GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        assertThat(frame, RegexMatchers.bytesContainPattern(Pattern.compile("^Host: \\w+$", Pattern.MULTILINE)));
+        assertThat(frame, RegexMatchers.bytesContainPattern(Pattern.compile("HTTP/1.1")));
+        assertThat(frame, RegexMatchers.bytesMatchPattern(Pattern.compile("GET (\\S+) HTTP/1\\.1\r\n.*", Pattern.DOTALL)));
+        Matcher<byte[]> regexMatcher = RegexMatchers.bytesContainPattern(Pattern.compile("POST"));
+        assertDescription(equalTo("a byte array containing pattern \"POST\""), regexMatcher);
+        assertMismatchDescription(equalTo("was byte array of 45 bytes " +
+                "\"GET /index.html HTTP/1.1\\r\\nHost: localhost\\r\\n\\r\\n\""), frame, regexMatcher);
+    }
+
+    @Test
+    public void byteBufferMatchesPattern() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        buffer.put("skipped;id=42;name=ăî".getBytes(StandardCharsets.UTF_8)).flip();
+        buffer.position(8);
+        assertThat(buffer, RegexMatchers.byteBufferMatchesPattern(Pattern.compile("id=\\d+;name=ăî")));
+        assertThat(buffer, RegexMatchers.byteBufferContainsPattern(Pattern.compile("^id=42")));
+        assertThat(buffer, not(RegexMatchers.byteBufferContainsPattern(Pattern.compile("skipped"))));
+        assertThat(buffer.position(), equalTo(8));
+        ByteBuffer asciiBuffer = ByteBuffer.wrap("0123456789".getBytes(StandardCharsets.US_ASCII));
+        assertThat(asciiBuffer, RegexMatchers.byteBufferContainsPattern(Pattern.compile("345", Pattern.LITERAL)));
+        assertMismatchDescription(equalTo("was byte buffer of 10 bytes \"0123456789\""), asciiBuffer,
+                RegexMatchers.byteBufferMatchesPattern(Pattern.compile("\\d{9}")));
+    }
+
+    @Test
+    public void asciiCharSequenceView() {
+        AsciiCharSequence view = AsciiCharSequence.of("abcdef".getBytes(StandardCharsets.US_ASCII));
+        assertThat(view.length(), equalTo(6));
+        assertThat(view.charAt(2), equalTo('c'));
+        assertThat(view.subSequence(1, 4).toString(), equalTo("bcd"));
+        assertThat(view.subSequence(1, 4).subSequence(1, 2).toString(), equalTo("c"));
+        assertThat(view.isAscii(), equalTo(true));
+        assertThat(AsciiCharSequence.of(new byte[]{'a', (byte) 0xE9}).isAscii(), equalTo(false));
+    }
+
+    @Test
+    public void hasGroupMatchers() {
+        Pattern pattern = Pattern.compile("id=(?<id>-?\\d+)(?:;name=(\\w+))?");
+        assertThat("x id=42;name=john", hasGroup(pattern, 2, equalTo("john")));
+        assertThat("x id=42;name=john", hasGroup(pattern, "id", equalTo("42")));
+        assertThat("x id=42", hasIntGroup(pattern, 1, equalTo(42)));
+        assertThat("x id=-9223372036854775808", hasLongGroup(pattern, "id", equalTo(Long.MIN_VALUE)));
+        assertThat("x id=42", hasGroups(pattern, contains("42", null)));
+    }
+
+    @Test
+    public void hasGroupDescription() {
+        Pattern pattern = Pattern.compile("id=(?<id>\\d+)(?:;name=(\\w+))?");
+        Matcher<String> groupMatcher = hasIntGroup(pattern, "id", greaterThan(50));
+        assertDescription(equalTo("a string containing pattern \"id=(?<id>\\\\d+)(?:;name=(\\\\w+))?\" " +
+                "with group \"id\" a value greater than <50>"), groupMatcher);
+        assertMismatchDescription(equalTo("group \"id\" <42> was less than <50> in the match \"id=42\" at index 2"),
+                "x id=42", groupMatcher);
+        assertMismatchDescription(equalTo("was \"x id=\""), "x id=", groupMatcher);
+        assertMismatchDescription(equalTo("group 1 \"99999999999\" is not an int in the match \"id=99999999999\" " +
+                "at index 0"), "id=99999999999", hasIntGroup(pattern, 1, greaterThan(50)));
+        assertMismatchDescription(equalTo("group 2 did not participate in the match \"id=42\" at index 0"),
+                "id=42", hasGroup(pattern, 2, equalTo("john")));
+        assertMismatchDescription(equalTo("groups item 1: was null in the match \"id=42\" at index 0"),
+                "id=42", hasGroups(pattern, contains("42", "john")));
+    }
+
+    @Test
+    public void lastEvaluationMatcherDoesNotRetainTheInput() throws Exception {
+        Matcher<CharSequence> groupMatcher = hasGroup(Pattern.compile("id=(\\d+)"), 1, equalTo("42"));
+        StringBuilder input = new StringBuilder("id=41");
+        assertMismatchDescription(equalTo("group 1 was \"41\" in the match \"id=41\" at index 0"), input, groupMatcher);
+        WeakReference<StringBuilder> inputReference = new WeakReference<>(input);
+        input = null;
+        for (int i = 0; i < 10 && inputReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(inputReference.get(), nullValue());
+    }
+
+    @Test
+    public void lastEvaluationMatcherDoesNotRetainAnUndescribedInput() throws Exception {
+        assertNotRetainedAfterMismatch(not(hasGroup(Pattern.compile("id=(\\d+)"), 1, equalTo("42"))));
+        assertNotRetainedAfterMismatch(not(hasGroups(Pattern.compile("name=(\\w+)"), contains("john"))));
+        assertNotRetainedAfterMismatch(not(containsAllPatterns("id=", "missing")));
+        assertNotRetainedAfterMismatch(not(withCharAccessBudget(10, containsPattern("missing"))));
+    }
+
+    private static void assertNotRetainedAfterMismatch(Matcher<? super StringBuilder> matcher) throws Exception {
+        StringBuilder input = new StringBuilder("id=41;");
+        while (input.length() < 1 << 20) {
+            input.append(input);
+        }
+        assertThat(input, matcher);
+        WeakReference<StringBuilder> inputReference = new WeakReference<>(input);
+        input = null;
+        for (int i = 0; i < 10 && inputReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        // the input is not shown on failure, it is one megabyte long
+        assertThat(StringDescription.toString(matcher) + " retained the input", inputReference.get() == null,
+                equalTo(true));
+    }
+
+    @Test
+    public void hasGroupWithInvalidGroupIndex() {
+        assertThrows(IllegalArgumentException.class, () -> hasGroup(Pattern.compile("(a)"), 2, equalTo("a")));
+    }
+
+    @Test
+    public void hasGroupWithInvalidGroupName() {
+        assertThrows(IllegalArgumentException.class,
+                () -> hasIntGroup(Pattern.compile("(?<id>\\d+)"), "ids", equalTo(1)));
+        assertThat("id=42", hasIntGroup(Pattern.compile("id=(?<id>\\d+)|name=(?<name>\\w+)"), "id", equalTo(42)));
+    }
+
+    @Test
+    public void namedGroupsOfPattern() {
+        assertThat(RegexGroups.namedGroups(Pattern.compile("(?<id>\\d+)(?<=1)(?<!2)(?:(?<name2>x))")),
+                equalTo(new HashSet<>(Arrays.asList("id", "name2"))));
+        assertThat(RegexGroups.namedGroups(Pattern.compile("(?<a>x)\\(?<b>[(?<c>)\\]]\\Q(?<d>)\\E")),
+                equalTo(new HashSet<>(Collections.singletonList("a"))));
+        assertThat(RegexGroups.namedGroups(Pattern.compile("(?<a>)", Pattern.LITERAL)),
+                equalTo(Collections.emptySet()));
+    }
+
+    @Test
+    public void parseNumbersFromCharSequence() {
+        assertThat(RegexGroups.parseLong("x+123y", 1, 5), equalTo(123L));
+        assertThat(RegexGroups.parseLong("9223372036854775807", 0, 19), equalTo(Long.MAX_VALUE));
+        assertThat(RegexGroups.parseInt("-2147483648", 0, 11), equalTo(Integer.MIN_VALUE));
+        assertThrows(NumberFormatException.class, () -> RegexGroups.parseLong("9223372036854775808", 0, 19));
+        assertThrows(NumberFormatException.class, () -> RegexGroups.parseInt("2147483648", 0, 10));
+        assertThrows(NumberFormatException.class, () -> RegexGroups.parseInt("-", 0, 1));
+        assertThrows(NumberFormatException.class, () -> RegexGroups.parseInt("1a", 0, 2));
+    }
+
+    @Test
+    public void linesMatchPatternReportsFirstFailingLine() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            lines.add("line-" + i);
+        }
+        lines.set(54_321, "broken");
+        lines.set(90_000, "broken too");
+        Matcher<Iterable<? extends CharSequence>> linesMatcher = linesMatchPattern(Pattern.compile("line-\\d+"));
+        for (int i = 0; i < 20; i++) {
+            assertMismatchDescription(equalTo("line 54322 was \"broken\""), lines, linesMatcher);
+            assertMismatchDescription(equalTo("line 54322 was \"broken\""), new LinkedList<>(lines), linesMatcher);
+            assertMismatchDescription(equalTo("line 54322 was \"broken\""), lines.stream(),
+                    streamLinesMatchPattern(Pattern.compile("line-\\d+")));
+        }
+        lines.set(54_321, "line-54321");
+        lines.set(90_000, "line-90000");
+        assertThat(lines, linesMatcher);
+        assertThat(new LinkedList<>(lines), linesMatcher);
+        assertThat(lines.toArray(new String[0]), arrayLinesMatchPattern(Pattern.compile("line-\\d+")));
+        assertThat(lines.parallelStream(), streamLinesContainPattern(Pattern.compile("\\d")));
+    }
+
+    @Test
+    public void linesMatchPatternDescription() {
+        assertDescription(equalTo("an iterable where every line is a string matching pattern \"a+\""),
+                linesMatchPattern(Pattern.compile("a+")));
+        assertDescription(equalTo("an array where every line is a string containing pattern \"a+\""),
+                arrayLinesContainPattern(Pattern.compile("a+")));
+        assertDescription(equalTo("a stream where every line is a string containing pattern \"a+\""),
+                streamLinesContainPattern(Pattern.compile("a+")));
+        assertMismatchDescription(equalTo("line 2 was null"), new String[]{"a", null, "b"},
+                arrayLinesContainPattern(Pattern.compile("a+")));
+        assertMismatchDescription(equalTo("line 3 was \"bcd\""), Arrays.asList("a", "baa", "bcd"),
+                linesContainPattern(Pattern.compile("a+")));
+        assertThat(Collections.<String>emptyList(), linesMatchPattern(Pattern.compile("a+")));
+    }
+
+    @Test
+    public void streamLinesMatchPatternStopsEarly() {
+        Stream<String> infinite = Stream.iterate(0, i -> i + 1).map(i -> i == 5000 ? "x" : "line-" + i);
+        assertMismatchDescription(equalTo("line 5001 was \"x\""), infinite,
+                streamLinesMatchPattern(Pattern.compile("line-\\d+")));
+    }
+
+    @Test
+    public void charAccessBudgetStopsCatastrophicBacktracking() {
+        String input = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaac";
+        Matcher<String> regexMatcher = withCharAccessBudget(100_000, matchesPattern("(a+)+\\1b"));
+        assertDescription(equalTo("a string matching pattern \"(a+)+\\\\1b\" within 100000 character accesses"),
+                regexMatcher);
+        assertMismatchDescription(equalTo("regex budget exceeded: more than 100000 character accesses for \"" +
+                input + "\""), input, regexMatcher);
+    }
+
+    @Test
+    public void timeBudgetStopsCatastrophicBacktracking() {
+        String input = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaac";
+        Matcher<StringBuilder> regexMatcher = withTimeBudget(50, TimeUnit.MILLISECONDS,
+                matchesPattern("(a+)+\\1b"));
+        assertMismatchDescription(equalTo("regex budget exceeded: more than 50 millisecond(s) for <" + input + ">"),
+                new StringBuilder(input), regexMatcher);
+    }
+
+    @Test
+    public void budgetKeepsTheResultsWithinTheLimit() {
+        Matcher<String> regexMatcher = withCharAccessBudget(1_000, containsAnyPattern("a+b", "c\\d"));
+        assertThat("xxaab", regexMatcher);
+        assertThat("xxc1", regexMatcher);
+        assertMismatchDescription(equalTo("was \"xxc\", which contained none of the 2 patterns"), "xxc", regexMatcher);
+        assertThat("abcd", withCharAccessBudget(4, matchesPattern("abcd")));
+        assertThat("abcd", not(withCharAccessBudget(3, matchesPattern("abcd"))));
+    }
+
+    @Test
+    public void patternCacheStatistics() {
+        clearPatternCache();
+        for (int i = 0; i < 10; i++) {
+            assertThat("alabala", allOf(matchesPattern("ala.ala"), containsPattern("bal", Pattern.CASE_INSENSITIVE)));
+        }
+        assertThat(patternCacheSize(), equalTo(2));
+        assertThat(patternCacheHitRate(), closeTo(0.9, 0.001));
+        clearPatternCache();
+        assertThat(patternCacheSize(), equalTo(0));
+        assertThat(patternCacheHitRate(), closeTo(1.0, 0.001));
+    }
+
+    @Test
+    public void patternCacheKeyedByFlags() {
+        PatternCache cache = new PatternCache(10);
+        Pattern caseSensitive = cache.compile("ala", 0);
+        Pattern caseInsensitive = cache.compile("ala", Pattern.CASE_INSENSITIVE);
+        assertThat(caseSensitive, not(sameInstance(caseInsensitive)));
+        assertThat(cache.compile("ala", 0), sameInstance(caseSensitive));
+        assertThat(cache.hitCount(), equalTo(1L));
+        assertThat(cache.missCount(), equalTo(2L));
+    }
+
+    @Test
+    public void patternCacheEvictsLeastRecentlyUsed() {
+        PatternCache cache = new PatternCache(2);
+        Pattern first = cache.compile("first", 0);
+        Pattern second = cache.compile("second", 0);
+        cache.compile("first", 0);
+        cache.compile("third", 0);
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.compile("first", 0), sameInstance(first));
+        assertThat(cache.compile("second", 0), not(sameInstance(second)));
+    }
+
+    @Test
+    public void patternCacheConcurrentUse() throws Exception {
+        PatternCache cache = new PatternCache(16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String regex = "pattern" + (i % 32);
+                        assertThat(cache.compile(regex, 0).pattern(), equalTo(regex));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(cache.size(), lessThanOrEqualTo(16));
+    }
+}
@@ -21,22 +21,63 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.AbstractOwnableSynchronizer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.both;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static ro.derbederos.hamcrest.LambdaMatchers.hasFeature;
 import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertDescription;
 import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertMismatchDescription;
 import static ro.derbederos.hamcrest.RetryMatchers.assertFeature;
+import static ro.derbederos.hamcrest.RetryMatchers.incrementalEveryItem;
+import static ro.derbederos.hamcrest.RetryMatchers.incrementalHasItem;
 import static ro.derbederos.hamcrest.RetryMatchers.retry;
+import static ro.derbederos.hamcrest.RetryMatchers.retryAsync;
+import static ro.derbederos.hamcrest.RetryMatchers.retryOnChange;
+import static ro.derbederos.hamcrest.RetryMatchers.retryOnSignal;
 import static ro.derbederos.hamcrest.RetryMatchers.retrySupplier;
 
 @org.junit.jupiter.api.Timeout(value = 700, unit = TimeUnit.MILLISECONDS)
@@ -169,6 +210,456 @@ public class RetryMatchersTest {
                 accumulator, retryMatcher);
     }
 
+    @Test
+    public void testRetryIncrementalEveryItem() {
+        List<Integer> log = new CopyOnWriteArrayList<>(Arrays.asList(1, 2, 3));
+        AtomicInteger evaluations = new AtomicInteger();
+        Matcher<Collection<? extends Integer>> matcher = incrementalEveryItem(countingMatcher(evaluations, greaterThan(0)));
+        assertThat(log, matcher);
+        log.addAll(Arrays.asList(4, 5));
+        assertThat(log, matcher);
+        assertThat(evaluations.get(), equalTo(5));
+        log.add(-1);
+        VirtualTime time = new VirtualTime();
+        WaitStrategy fixedAfter100Millis = nanos -> {
+            time.await(nanos);
+            if (time.elapsed(MILLISECONDS) >= 100) {
+                log.set(5, 6);
+            }
+        };
+        assertThat(log, retry(500, MILLISECONDS, RetryPolicy.fixed(10, MILLISECONDS), time, fixedAfter100Millis,
+                matcher));
+        assertThat(log, matcher);
+        // only the appended item is matched, by the attempts at 0, 10, ..., 100 milliseconds
+        assertThat(evaluations.get(), equalTo(5 + 11));
+    }
+
+    @Test
+    public void testIncrementalEveryItemOnPriorityQueue() {
+        Queue<Integer> queue = new PriorityQueue<>(Arrays.asList(3, 4, 5));
+        Matcher<Collection<? extends Integer>> matcher = incrementalEveryItem(greaterThan(2));
+        assertThat(queue, matcher);
+        queue.add(1);
+        assertThat(queue, not(matcher));
+        assertMismatchDescription(equalTo("an item at index 0 <1> was less than <2>"), queue, matcher);
+    }
+
+    @Test
+    public void testIncrementalEveryItemOnConsumedQueue() {
+        Queue<Integer> queue = new ConcurrentLinkedQueue<>(Arrays.asList(3, 4, 5));
+        Matcher<Collection<? extends Integer>> matcher = incrementalEveryItem(greaterThan(2));
+        assertThat(queue, matcher);
+        queue.poll();
+        queue.add(1);
+        assertThat(queue, not(matcher));
+    }
+
+    @Test
+    public void testRetryIncrementalEveryItemDescription() {
+        Queue<Integer> log = new ConcurrentLinkedQueue<>(Arrays.asList(1, 2, -3, 4));
+        Matcher<Collection<? extends Integer>> matcher = incrementalEveryItem(greaterThan(0));
+        assertDescription(equalTo("every item is a value greater than <0>"), matcher);
+        assertMismatchDescription(equalTo("an item at index 2 <-3> was less than <0>"), log, matcher);
+    }
+
+    @Test
+    public void testRetryIncrementalHasItem() {
+        Queue<Integer> log = new ConcurrentLinkedQueue<>(Arrays.asList(1, 2, 3));
+        AtomicInteger evaluations = new AtomicInteger();
+        Matcher<Collection<? extends Integer>> matcher = incrementalHasItem(countingMatcher(evaluations, equalTo(7)));
+        assertThat(log, not(matcher));
+        executeDelayed(100, () -> log.addAll(Arrays.asList(5, 6, 7)));
+        assertThat(log, retry(500, 10, matcher));
+        assertThat(evaluations.get(), equalTo(6));
+        assertThat(log, matcher);
+        assertThat(evaluations.get(), equalTo(6));
+    }
+
+    @Test
+    public void testRetryIncrementalHasItemDescription() {
+        List<Integer> log = new CopyOnWriteArrayList<>(Arrays.asList(1, 2, 3));
+        Matcher<Collection<? extends Integer>> matcher = incrementalHasItem(equalTo(7));
+        assertDescription(equalTo("a collection containing <7>"), matcher);
+        assertMismatchDescription(equalTo("none of the 3 items matched"), log, matcher);
+    }
+
+    @Test
+    public void testIncrementalEveryItemOnUnorderedCollection() {
+        Set<Integer> set = new HashSet<>(Arrays.asList(1, 2, 3));
+        Matcher<Collection<? extends Integer>> matcher = incrementalEveryItem(greaterThan(0));
+        assertThat(set, matcher);
+        set.add(-1);
+        assertThat(set, not(matcher));
+    }
+
+    @Test
+    public void testRetrySharedBetweenThreads() throws Exception {
+        assertSharedRetryMatches(Executors.defaultThreadFactory(), 32);
+    }
+
+    @Test
+    public void testRetrySharedBetweenVirtualThreads() throws Exception {
+        ThreadFactory virtualThreadFactory = virtualThreadFactory();
+        assumeTrue(virtualThreadFactory != null, "virtual threads are not available");
+        assertSharedRetryMatches(virtualThreadFactory, 5000);
+    }
+
+    @Test
+    public void testRetryWaitsForTheSubMatcherWithoutAMonitor() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger evaluations = new AtomicInteger();
+        Matcher<AtomicInteger> retryMatcher = retry(500, 10, MILLISECONDS, hasFeature(value -> {
+            evaluations.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value.get();
+        }, equalTo(7)));
+        AtomicInteger value = new AtomicInteger(7);
+        Thread holder = new Thread(() -> retryMatcher.matches(value));
+        holder.start();
+        entered.await();
+        Thread waiter = new Thread(() -> retryMatcher.matches(value));
+        waiter.start();
+        while (waiter.getState() == Thread.State.RUNNABLE || waiter.getState() == Thread.State.NEW) {
+            Thread.yield();
+        }
+        try {
+            // a thread blocked on a monitor would pin the carrier of a virtual thread
+            assertThat(waiter.getState(), equalTo(Thread.State.WAITING));
+            assertThat(evaluations.get(), equalTo(1));
+            assertThat(LockSupport.getBlocker(waiter), instanceOf(AbstractOwnableSynchronizer.class));
+        } finally {
+            release.countDown();
+            holder.join();
+            waiter.join();
+        }
+    }
+
+    private static void assertSharedRetryMatches(ThreadFactory threadFactory, int threadCount) throws Exception {
+        AtomicInteger value = new AtomicInteger(2);
+        Matcher<AtomicInteger> retryMatcher = retry(500, 10, MILLISECONDS,
+                hasFeature(AtomicInteger::get, equalTo(7)));
+        AtomicInteger matched = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = threadFactory.newThread(() -> {
+                if (retryMatcher.matches(value)) {
+                    matched.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        executeDelayed(100, () -> value.set(7));
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(matched.get(), equalTo(threadCount));
+    }
+
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @Test
+    public void testRetryAsync() throws Exception {
+        DelayedValueBean bean = new DelayedValueBean(100, 2, 7);
+        CompletableFuture<Void> future = retryAsync(500, 25, hasFeature(DelayedValueBean::getValue, equalTo(7)), bean);
+        assertThat(future.isDone(), equalTo(false));
+        future.get(600, MILLISECONDS);
+        assertThat(bean.getValueCallCount.intValue(), greaterThanOrEqualTo(2));
+    }
+
+    @Test
+    public void testRetryAsyncFailureMessage() throws Exception {
+        DelayedValueBean bean = new DelayedValueBean(100, 2, 7);
+        Matcher<DelayedValueBean> matcher = hasFeature(DelayedValueBean::getValue, equalTo(9));
+        CompletableFuture<Void> future = retryAsync(300, 50, MILLISECONDS, matcher, bean);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(600, MILLISECONDS));
+        AssertionError expected = assertThrows(AssertionError.class, () -> assertThat(bean, retry(300, matcher)));
+        assertThat(exception.getCause(), instanceOf(AssertionError.class));
+        assertThat(exception.getCause().getMessage(), equalTo(expected.getMessage()));
+        assertThat(exception.getCause().getMessage(), equalTo(System.lineSeparator()
+                + "Expected: a DelayedValueBean having `DelayedValueBean::getValue` <9>" + System.lineSeparator()
+                + "     but: after 300 millisecond(s) `DelayedValueBean::getValue` was <7>"));
+    }
+
+    @Test
+    public void testRetryAsyncManyPendingRetries() throws Exception {
+        AtomicInteger value = new AtomicInteger(2);
+        Matcher<AtomicInteger> matcher = hasFeature(AtomicInteger::get, equalTo(7));
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            futures.add(retryAsync(500, 10, matcher, value));
+        }
+        executeDelayed(100, () -> value.set(7));
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(600, MILLISECONDS);
+    }
+
+    @Test
+    public void testRetryAsyncCancel() throws Exception {
+        AtomicInteger evaluations = new AtomicInteger();
+        CompletableFuture<Void> future = retryAsync(500, 10, countingMatcher(evaluations, equalTo(7)), 2);
+        Thread.sleep(50);
+        future.cancel(false);
+        int evaluationsAfterCancel = evaluations.get();
+        Thread.sleep(50);
+        assertThat(evaluations.get(), lessThan(evaluationsAfterCancel + 2));
+    }
+
+    @Test
+    public void testRetryAsyncCancelReleasesThePendingProbe() throws Exception {
+        AtomicInteger evaluations = new AtomicInteger();
+        AtomicInteger item = new AtomicInteger(2);
+        CompletableFuture<Void> future = retryAsync(600_000, 60_000, countingMatcher(evaluations, equalTo(7)), item);
+        while (evaluations.get() == 0) {
+            Thread.sleep(1);
+        }
+        future.cancel(false);
+        WeakReference<AtomicInteger> itemReference = new WeakReference<>(item);
+        item = null;
+        for (int i = 0; i < 10 && itemReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(itemReference.get(), nullValue());
+        assertThat(future.isCancelled(), equalTo(true));
+    }
+
+    @Test
+    public void testRetryPolicyDelays() {
+        assertThat(RetryPolicy.fixed(20, MILLISECONDS).delayNanos(7), equalTo(20_000_000L));
+        RetryPolicy exponential = RetryPolicy.exponential(1, 100, 2.0, MILLISECONDS);
+        assertThat(exponential.delayNanos(1), equalTo(1_000_000L));
+        assertThat(exponential.delayNanos(4), equalTo(8_000_000L));
+        assertThat(exponential.delayNanos(8), equalTo(100_000_000L));
+        assertThat(exponential.delayNanos(Integer.MAX_VALUE), equalTo(100_000_000L));
+        RetryPolicy fibonacci = RetryPolicy.fibonacci(1, 100, MILLISECONDS);
+        assertThat(fibonacci.delayNanos(1), equalTo(1_000_000L));
+        assertThat(fibonacci.delayNanos(2), equalTo(1_000_000L));
+        assertThat(fibonacci.delayNanos(6), equalTo(8_000_000L));
+        assertThat(fibonacci.delayNanos(Integer.MAX_VALUE), equalTo(100_000_000L));
+        RetryPolicy jitter = RetryPolicy.exponentialWithJitter(10, 100, MILLISECONDS);
+        for (int attempt = 1; attempt < 100; attempt++) {
+            long delay = exponential.delayNanos(attempt) * 10;
+            assertThat(jitter.delayNanos(attempt), both(greaterThanOrEqualTo(Math.min(delay, 100_000_000L) / 2))
+                    .and(lessThanOrEqualTo(Math.min(delay, 100_000_000L))));
+        }
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.exponential(1, 100, 0.5, MILLISECONDS));
+    }
+
+    @Test
+    public void testExponentialRetryProbesLessThanFixedRetry() {
+        assertThat(probeTimesInMillis(RetryPolicy.fixed(10, MILLISECONDS), 200),
+                contains(0L, 10L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L, 110L, 120L, 130L, 140L, 150L, 160L,
+                        170L, 180L, 190L, 200L));
+        assertThat(probeTimesInMillis(RetryPolicy.exponential(1, 100, 2.0, MILLISECONDS), 200),
+                contains(0L, 1L, 3L, 7L, 15L, 31L, 63L, 127L, 227L));
+    }
+
+    @Test
+    public void testExponentialRetryDetectsFastConditionsSooner() {
+        assertThat(probeTimesInMillis(RetryPolicy.fixed(50, MILLISECONDS), 5), contains(0L, 50L));
+        assertThat(probeTimesInMillis(RetryPolicy.exponential(1, 100, 2.0, MILLISECONDS), 5),
+                contains(0L, 1L, 3L, 7L));
+    }
+
+    private static List<Long> probeTimesInMillis(RetryPolicy retryPolicy, long readyAfterMillis) {
+        VirtualTime time = new VirtualTime();
+        List<Long> probeTimes = new ArrayList<>();
+        assertThat(time, retry(500, MILLISECONDS, retryPolicy, time, time, hasFeature(t -> {
+            probeTimes.add(t.elapsed(MILLISECONDS));
+            return t.elapsed(MILLISECONDS);
+        }, greaterThanOrEqualTo(readyAfterMillis))));
+        return probeTimes;
+    }
+
+    @Test
+    public void testRetryAsyncWithRetryPolicy() throws Exception {
+        DelayedValueBean bean = new DelayedValueBean(100, 2, 7);
+        retryAsync(500, MILLISECONDS, RetryPolicy.exponentialWithJitter(5, 50, MILLISECONDS),
+                hasProperty("value", equalTo(7)), bean).get(600, MILLISECONDS);
+    }
+
+    @Test
+    public void testRetryWithSpinThenPark() {
+        AtomicInteger value = new AtomicInteger(2);
+        executeDelayed(20, () -> value.set(7));
+        assertThat(value, retry(500, MILLISECONDS, RetryPolicy.fixed(20, MICROSECONDS),
+                WaitStrategy.spinThenPark(100, MICROSECONDS), hasFeature(AtomicInteger::get, equalTo(7))));
+    }
+
+    @Test
+    public void testSpinThenParkSplitsTheWait() {
+        VirtualTime time = new VirtualTime();
+        List<Long> parks = new ArrayList<>();
+        AtomicInteger spins = new AtomicInteger();
+        WaitStrategy waitStrategy = WaitStrategies.spinThenPark(MICROSECONDS.toNanos(100), time, nanos -> {
+            parks.add(nanos);
+            time.await(nanos);
+        }, () -> {
+            spins.incrementAndGet();
+            time.advance(1, MICROSECONDS);
+        });
+
+        waitStrategy.await(MICROSECONDS.toNanos(20));
+        assertThat(parks, empty());
+        assertThat(spins.get(), equalTo(20));
+
+        spins.set(0);
+        waitStrategy.await(MICROSECONDS.toNanos(300));
+        assertThat(parks, contains(MICROSECONDS.toNanos(200)));
+        assertThat(spins.get(), equalTo(100));
+        assertThat(time.elapsed(MICROSECONDS), equalTo(320L));
+    }
+
+    @Test
+    public void testRetryOnChange() {
+        AtomicInteger value = new AtomicInteger(2);
+        ChangeSignal changed = new ChangeSignal();
+        AtomicInteger evaluations = new AtomicInteger();
+        executeDelayed(100, () -> {
+            value.set(7);
+            changed.signal();
+        });
+        long start = System.nanoTime();
+        assertThat(value, retryOnChange(500, MILLISECONDS, changed,
+                countingMatcher(evaluations, hasFeature(AtomicInteger::get, equalTo(7)))));
+        assertThat(evaluations.get(), equalTo(2));
+        assertThat(System.nanoTime() - start, lessThan(MILLISECONDS.toNanos(300)));
+    }
+
+    @Test
+    public void testRetryOnChangeWithoutSignalDescription() {
+        AtomicInteger value = new AtomicInteger(2);
+        AtomicInteger evaluations = new AtomicInteger();
+        AtomicInteger subscriptions = new AtomicInteger();
+        ChangeSignal changed = new ChangeSignal();
+        ChangeSource source = onChange -> {
+            subscriptions.incrementAndGet();
+            Runnable unsubscribe = changed.subscribe(onChange);
+            return () -> {
+                subscriptions.decrementAndGet();
+                unsubscribe.run();
+            };
+        };
+        executeDelayed(50, () -> value.set(7));
+        Matcher<AtomicInteger> retryMatcher = retryOnChange(200, MILLISECONDS, source,
+                countingMatcher(evaluations, hasFeature(AtomicInteger::get, equalTo(8))));
+        assertThat(value, not(retryMatcher));
+        assertThat(evaluations.get(), equalTo(1));
+        assertThat(subscriptions.get(), equalTo(0));
+        assertMismatchDescription(equalTo("after 200 millisecond(s) `AtomicInteger::get` was <7>"), value,
+                retryMatcher);
+    }
+
+    @Test
+    public void testRetryOnFutureCompletion() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        executeDelayed(100, () -> future.complete("done"));
+        assertThat(future, retryOnChange(500, MILLISECONDS, ChangeSource.of(future),
+                hasFeature(CompletableFuture::isDone, equalTo(true))));
+    }
+
+    @Test
+    public void testFutureChangeSourceUnsubscribe() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        AtomicInteger notifications = new AtomicInteger();
+        Runnable unsubscribe = ChangeSource.of(future).subscribe(notifications::incrementAndGet);
+        ChangeSource.of(future).subscribe(notifications::incrementAndGet);
+        unsubscribe.run();
+        future.complete("done");
+        assertThat(notifications.get(), equalTo(1));
+    }
+
+    @Test
+    public void testRetryOnSignal() {
+        ReentrantLock lock = new ReentrantLock();
+        Condition changed = lock.newCondition();
+        List<Integer> values = new ArrayList<>();
+        AtomicInteger evaluations = new AtomicInteger();
+        executeDelayed(50, () -> {
+            lock.lock();
+            try {
+                values.add(1);
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        });
+        executeDelayed(100, () -> {
+            lock.lock();
+            try {
+                values.add(2);
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        });
+        assertThat(values, retryOnSignal(500, MILLISECONDS, lock, changed,
+                countingMatcher(evaluations, equalTo(Arrays.asList(1, 2)))));
+        // a condition may wake up spuriously
+        assertThat(evaluations.get(), both(greaterThanOrEqualTo(3)).and(lessThan(6)));
+    }
+
+    @Test
+    public void testRetryInVirtualTime() {
+        VirtualTime time = new VirtualTime();
+        AtomicInteger evaluations = new AtomicInteger();
+        Matcher<VirtualTime> readyAfterFiveMinutes = countingMatcher(evaluations,
+                hasFeature(t -> t.elapsed(MINUTES), greaterThanOrEqualTo(5L)));
+        assertThat(time, retry(10, MINUTES, RetryPolicy.fixed(30, SECONDS), time, time, readyAfterFiveMinutes));
+        assertThat(time.elapsed(SECONDS), equalTo(300L));
+        assertThat(evaluations.get(), equalTo(11));
+    }
+
+    @Test
+    public void testRetryInVirtualTimeTimeout() {
+        VirtualTime time = new VirtualTime();
+        AtomicInteger evaluations = new AtomicInteger();
+        Matcher<AtomicInteger> retryMatcher = retry(10, MINUTES, RetryPolicy.fixed(30, SECONDS), time, time,
+                countingMatcher(evaluations, hasFeature(AtomicInteger::get, equalTo(7))));
+        AtomicInteger value = new AtomicInteger(2);
+        assertThat(value, not(retryMatcher));
+        assertThat(time.elapsed(MINUTES), equalTo(10L));
+        assertThat(evaluations.get(), equalTo(21));
+        assertMismatchDescription(equalTo("after 10 minute(s) `AtomicInteger::get` was <2>"), value, retryMatcher);
+    }
+
+    @Test
+    public void testRetryInVirtualTimeWithExponentialPolicy() {
+        VirtualTime time = new VirtualTime();
+        time.advance(1, HOURS);
+        AtomicInteger evaluations = new AtomicInteger();
+        Matcher<VirtualTime> retryMatcher = retry(1, HOURS, RetryPolicy.exponential(1, 60, 2.0, SECONDS), time, time,
+                countingMatcher(evaluations, hasFeature(t -> t.elapsed(HOURS), greaterThanOrEqualTo(3L))));
+        assertThat(time, not(retryMatcher));
+        assertThat(time.elapsed(HOURS), equalTo(2L));
+        // 1 + 2 + 4 + 8 + 16 + 32 seconds, then 58 waits of 60 seconds and a final wait of 57 seconds
+        assertThat(evaluations.get(), equalTo(66));
+    }
+
+    private static <T> Matcher<T> countingMatcher(AtomicInteger evaluations, Matcher<T> matcher) {
+        return MatcherBuilder.<T>of(Object.class)
+                .matches(item -> {
+                    evaluations.incrementAndGet();
+                    return matcher.matches(item);
+                })
+                .description(description -> description.appendDescriptionOf(matcher))
+                .describeMismatch(matcher::describeMismatch)
+                .build();
+    }
+
     @SuppressWarnings("WeakerAccess")
     public static class DelayedValueBean {
         private final long start = System.nanoTime();
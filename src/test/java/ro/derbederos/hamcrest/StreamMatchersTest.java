@@ -20,19 +20,46 @@ import org.hamcrest.Matcher;
 import org.junit.jupiter.api.Test;
 import ro.derbederos.hamcrest.LambdaMatchersTest.Person;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.summingInt;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.lessThan;
 import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertDescription;
 import static ro.derbederos.hamcrest.MatcherDescriptionAssert.assertMismatchDescription;
 import static ro.derbederos.hamcrest.RetryMatchers.retry;
+import static ro.derbederos.hamcrest.StreamMatchers.allItems;
+import static ro.derbederos.hamcrest.StreamMatchers.anyItem;
+import static ro.derbederos.hamcrest.StreamMatchers.collecting;
 import static ro.derbederos.hamcrest.StreamMatchers.emptyStream;
 import static ro.derbederos.hamcrest.StreamMatchers.featureStream;
+import static ro.derbederos.hamcrest.StreamMatchers.itemCount;
+import static ro.derbederos.hamcrest.StreamMatchers.noItem;
+import static ro.derbederos.hamcrest.StreamMatchers.reducing;
 import static ro.derbederos.hamcrest.StreamMatchers.toIterable;
 
 public class StreamMatchersTest {
@@ -49,6 +76,17 @@ public class StreamMatchersTest {
                 Stream.of("alabala", "trilulilu"), emptyStream());
     }
 
+    @Test
+    public void streamIsEmptyWithNonPositiveDescriptionLimit() {
+        System.setProperty("lambdamatchers.descriptionItemLimit", "0");
+        try {
+            assertMismatchDescription(endsWith("[\"alabala\",...,\"trilulilu\"] (3 items)"),
+                    Stream.of("alabala", "portocala", "trilulilu"), emptyStream());
+        } finally {
+            System.clearProperty("lambdamatchers.descriptionItemLimit");
+        }
+    }
+
     @Test
     public void longStreamIsEmpty() {
         assertThat(LongStream.empty(), emptyStream());
@@ -100,4 +138,194 @@ public class StreamMatchersTest {
         Stream<String> stream = Stream.of("aa", "bb", "cc");
         assertThat(stream, not(retry(500, toIterable(hasItem("aaa")))));
     }
+
+    private static final Matcher<Stream<String>> SHARED_MATCHER = toIterable(hasItem("needle"));
+
+    @Test
+    public void sharedMatcherConcurrentEvaluation() throws Exception {
+        int threads = 8;
+        int iterations = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int threadIndex = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int failures = 0;
+                    for (int i = 0; i < iterations; i++) {
+                        boolean expected = (i + threadIndex) % 2 == 0;
+                        Stream<String> stream = expected
+                                ? Stream.of("hay", "needle", "hay")
+                                : Stream.of("hay", "hay");
+                        if (SHARED_MATCHER.matches(stream) != expected) {
+                            failures++;
+                        }
+                    }
+                    return failures;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS), equalTo(0));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sharedMatcherDescribesMismatchOfEvaluatedStream() {
+        Stream<String> first = Stream.of("hay", "straw");
+        Stream<String> second = Stream.of("hay", "hay");
+        assertThat(SHARED_MATCHER.matches(first), equalTo(false));
+        assertThat(SHARED_MATCHER.matches(second), equalTo(false));
+        assertMismatchDescription(containsString("[was \"hay\", was \"straw\"]"), first, SHARED_MATCHER);
+    }
+
+    @Test
+    public void matcherDoesNotRetainEvaluatedStream() {
+        Matcher<Stream<String>> streamMatcher = toIterable(hasItem("needle"));
+        Stream<String> stream = Stream.of("hay", "needle");
+        assertThat(stream, streamMatcher);
+        WeakReference<Stream<String>> streamReference = new WeakReference<>(stream);
+        //noinspection UnusedAssignment
+        stream = null;
+        for (int i = 0; i < 50 && streamReference.get() != null; i++) {
+            System.gc();
+        }
+        assertThat(streamReference.get(), nullValue());
+        assertThat(Stream.of("needle"), streamMatcher);
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void parallelStreamToIterableKeepsEncounterOrder() {
+        Stream<Integer> stream = IntStream.range(0, 10_000).boxed().parallel();
+        Matcher<Iterable<? super Integer>> inOrder = (Matcher) contains(IntStream.range(0, 10_000).boxed().toArray());
+        assertThat(stream, toIterable(inOrder));
+    }
+
+    @Test
+    public void streamAllItems() {
+        assertThat(Stream.of(21, 22, 23), allItems(greaterThanOrEqualTo(21)));
+        assertThat(IntStream.range(0, 10_000).boxed().parallel(), allItems(greaterThanOrEqualTo(0)));
+        assertThat(Stream.of(21, 20, 23), not(allItems(greaterThanOrEqualTo(21))));
+    }
+
+    @Test
+    public void streamAllItemsDescription() {
+        Matcher<Stream<Integer>> streamMatcher = allItems(lessThan(5_000));
+        assertDescription(equalTo("a stream where every item is a value less than <5000>"), streamMatcher);
+        assertMismatchDescription(equalTo("an item <5000> was equal to <5000>"),
+                IntStream.range(0, 10_000).boxed().parallel(), streamMatcher);
+    }
+
+    @Test
+    public void streamAnyItem() {
+        assertThat(IntStream.range(0, 10_000).boxed().parallel(), anyItem(equalTo(9_999)));
+        assertThat(Stream.of("a", null), anyItem(nullValue()));
+    }
+
+    @Test
+    public void streamAnyItemDescription() {
+        Matcher<Stream<String>> streamMatcher = anyItem(equalTo("c"));
+        assertDescription(equalTo("a stream having an item that is \"c\""), streamMatcher);
+        assertMismatchDescription(equalTo("no item matched"), Stream.of("a", "b"), streamMatcher);
+    }
+
+    @Test
+    public void streamNoItem() {
+        assertThat(IntStream.range(0, 10_000).boxed().parallel(), noItem(lessThan(0)));
+        assertThat(Stream.of("a", null), not(noItem(nullValue())));
+    }
+
+    @Test
+    public void streamNoItemDescription() {
+        Matcher<Stream<Integer>> streamMatcher = noItem(greaterThan(100));
+        assertDescription(equalTo("a stream having no item that is a value greater than <100>"), streamMatcher);
+        assertMismatchDescription(equalTo("item <101> matched"),
+                IntStream.range(0, 10_000).boxed().parallel(), streamMatcher);
+    }
+
+    @Test
+    public void streamItemCount() {
+        assertThat(IntStream.range(0, 10_000).parallel().filter(i -> i % 2 == 0), itemCount(equalTo(5_000L)));
+        assertThat(Stream.of("a", "b"), itemCount(equalTo(2L)));
+    }
+
+    @Test
+    public void streamItemCountDescription() {
+        Matcher<BaseStream<String, Stream<String>>> streamMatcher = itemCount(equalTo(3L));
+        assertDescription(equalTo("a stream with count <3L>"), streamMatcher);
+        assertMismatchDescription(equalTo("count was <2L>"), Stream.of("a", "b"), streamMatcher);
+    }
+
+    @Test
+    public void streamReducing() {
+        assertThat(IntStream.rangeClosed(1, 100).boxed().parallel(), reducing(0, Integer::sum, equalTo(5050)));
+    }
+
+    @Test
+    public void streamReducingDescription() {
+        Matcher<Stream<Integer>> streamMatcher = reducing(0, Integer::sum, equalTo(10));
+        assertDescription(equalTo("a stream reduced to <10>"), streamMatcher);
+        assertMismatchDescription(equalTo("reduced value was <6>"), Stream.of(1, 2, 3), streamMatcher);
+    }
+
+    @Test
+    public void streamIsEmptyBoundedDescription() {
+        assertMismatchDescription(endsWith("was [<0>,<1>,<2>,<3>,<4>,<5>,<6>,<7>,<8>,<9>,...," +
+                        "<999990>,<999991>,<999992>,<999993>,<999994>,<999995>,<999996>,<999997>,<999998>,<999999>] " +
+                        "(1000000 items)"),
+                IntStream.range(0, 1_000_000).parallel(), emptyStream());
+    }
+
+    @Test
+    public void streamAllItemsBounded() {
+        assertThat(IntStream.range(0, 10_000).boxed().parallel(), allItems(greaterThanOrEqualTo(0), 5));
+    }
+
+    @Test
+    public void streamAllItemsBoundedDescription() {
+        Matcher<Stream<Integer>> streamMatcher = allItems(lessThan(99_997), 2);
+        assertDescription(equalTo("a stream where every item is a value less than <99997>"), streamMatcher);
+        assertMismatchDescription(equalTo("3 of 100000 items did not match, at indexes [99997, 99998, ... (1 more)]; " +
+                        "first mismatch: <99997> was equal to <99997>; items: [<0>, <1>, ..., <99998>, <99999>] (100000 items)"),
+                IntStream.range(0, 100_000).boxed().parallel(), streamMatcher);
+    }
+
+    @Test
+    public void streamCollecting() {
+        assertThat(Stream.of("a", "b", "c"), collecting(joining(","), equalTo("a,b,c")));
+        assertThat(IntStream.range(0, 10_000).boxed().parallel(),
+                collecting(groupingBy(i -> i % 2 == 0, counting()), hasEntry(true, 5_000L)));
+    }
+
+    @Test
+    public void streamCollectingDescription() {
+        Matcher<Stream<String>> streamMatcher = collecting(joining(","), equalTo("a,b"));
+        assertDescription(equalTo("a stream collected to \"a,b\""), streamMatcher);
+        assertMismatchDescription(equalTo("collected was \"a,b,c\""), Stream.of("a", "b", "c"), streamMatcher);
+    }
+
+    @Test
+    public void streamCollectingFeature() {
+        Stream<Person> stream = Stream.of(new Person("Alice Bob", 21),
+                new Person("Ana Pop", 22),
+                new Person("Ariana G", 21));
+        assertThat(stream, collecting(Person::getAge, summingInt(Integer::intValue), equalTo(64)));
+    }
+
+    @Test
+    public void streamCollectingFeatureDescription() {
+        Stream<Person> stream = Stream.of(new Person("Alice Bob", 21),
+                new Person("Ana Pop", 22));
+        Matcher<Stream<Person>> streamMatcher = collecting(Person::getName, joining(","), equalTo("Ana Pop"));
+        assertDescription(equalTo("a Stream of Person having `Person::getName` collected to \"Ana Pop\""),
+                streamMatcher);
+        assertMismatchDescription(equalTo("`Person::getName` collected was \"Alice Bob,Ana Pop\""),
+                stream, streamMatcher);
+    }
 }
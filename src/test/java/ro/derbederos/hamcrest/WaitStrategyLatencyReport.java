@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2016-2021 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.hamcrest;
+
+import java.util.Arrays;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Reports the wake-up error percentiles of the wait strategies. It measures the scheduler of the machine it runs on,
+ * so it only reports, and it is not part of the test suite.
+ */
+public final class WaitStrategyLatencyReport {
+
+    private WaitStrategyLatencyReport() {
+    }
+
+    public static void main(String[] args) {
+        report("park, 20us waits", WaitStrategy.park(), 20_000, 200);
+        report("spin then park, 20us waits", WaitStrategy.spinThenPark(100, MICROSECONDS), 20_000, 200);
+        report("park, 300us waits", WaitStrategy.park(), 300_000, 50);
+        report("spin then park, 300us waits", WaitStrategy.spinThenPark(100, MICROSECONDS), 300_000, 50);
+    }
+
+    private static void report(String name, WaitStrategy waitStrategy, long waitNanos, int count) {
+        long[] delays = wakeUpDelays(waitStrategy, waitNanos, count);
+        System.out.println(name + ": p50=" + percentile(delays, 50) / 1000 + "us p90=" + percentile(delays, 90) / 1000
+                + "us p99=" + percentile(delays, 99) / 1000 + "us");
+    }
+
+    private static long[] wakeUpDelays(WaitStrategy waitStrategy, long waitNanos, int count) {
+        long[] delays = new long[count];
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            waitStrategy.await(waitNanos);
+            delays[i] = System.nanoTime() - start - waitNanos;
+        }
+        Arrays.sort(delays);
+        return delays;
+    }
+
+    private static long percentile(long[] sortedDelays, int percentile) {
+        return sortedDelays[(sortedDelays.length - 1) * percentile / 100];
+    }
+}